@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.single;
+
+import io.micrometer.release.common.GradleParser;
+import io.micrometer.release.single.ChangelogSection.Section;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the changelog of a release with the accumulated changelog of many previous
+ * releases, the way the post release workflow does for the release notes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangelogMergeBenchmark {
+
+    @Param({ "10", "100" })
+    int releases;
+
+    @Param({ "50" })
+    int entriesPerSection;
+
+    private final ChangelogProcessor changelogProcessor = new ChangelogProcessor((GradleParser) null);
+
+    private String currentMarkdown;
+
+    private String oldMarkdown;
+
+    @Setup
+    public void setup() {
+        currentMarkdown = changelog(releases, entriesPerSection).toMarkdown();
+        List<Changelog> previousReleases = new ArrayList<>();
+        for (int release = 0; release < releases; release++) {
+            previousReleases.add(changelog(release, entriesPerSection));
+        }
+        Changelog old = new Changelog();
+        for (Changelog previousRelease : previousReleases) {
+            for (ChangelogSection section : previousRelease.getSections()) {
+                old.getSection(section.getSection()).merge(section);
+            }
+        }
+        oldMarkdown = old.toMarkdown();
+    }
+
+    @Benchmark
+    public String mergeChangelogs() {
+        return changelogProcessor.processChangelog(Changelog.parse(currentMarkdown), Changelog.parse(oldMarkdown),
+                Set.of());
+    }
+
+    private static Changelog changelog(int release, int entriesPerSection) {
+        Changelog changelog = new Changelog();
+        for (int i = 0; i < entriesPerSection; i++) {
+            int issue = release * entriesPerSection + i;
+            String link = " [#" + issue + "](https://github.com/micrometer-metrics/micrometer/issues/" + issue + ")";
+            changelog.getSection(Section.FEATURES).addEntry("- Feature " + issue + link);
+            changelog.getSection(Section.BUGS).addEntry("- Bug " + issue + link);
+            changelog.getSection(Section.DOCUMENTATION).addEntry("- Docs " + issue + link);
+            changelog.getSection(Section.UPGRADES)
+                .addEntry("- Bump com.example:lib-" + i + " from 1." + release + ".0 to 1." + (release + 1) + ".0"
+                        + link);
+        }
+        changelog.getSection(Section.CONTRIBUTORS)
+            .addEntry(ChangelogSection.CONTRIBUTORS_TEXT + "\n\n@user-" + release + " and @other-" + release);
+        return changelog;
+    }
+
+}
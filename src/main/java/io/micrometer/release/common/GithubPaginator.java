@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches paginated GitHub listings. The first page tells us (via the {@code Link}
+ * header) what the last page is, the remaining pages are then requested concurrently
+ * with a bounded fan-out and handed over to the caller in page order as soon as they
+ * arrive.
+ */
+public class GithubPaginator {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubPaginator.class);
+
+    public static final String GITHUB_API_URL = "https://api.github.com";
+
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"last\"");
+
+    private static final Pattern PAGE_PARAM = Pattern.compile("([?&])page=(\\d+)");
+
+    private static final int MAX_CONCURRENT_PAGES = 8;
+
+    private final HttpClient httpClient;
+
+    private final String githubApiUrl;
+
+    private final String githubToken;
+
+    private final int maxConcurrentPages;
+
+    public GithubPaginator() {
+        this(ReleaseHttpClient.shared(), GITHUB_API_URL, Input.getGhToken(), MAX_CONCURRENT_PAGES);
+    }
+
+    // for tests
+    public GithubPaginator(HttpClient httpClient, String githubApiUrl, String githubToken, int maxConcurrentPages) {
+        this.httpClient = httpClient;
+        this.githubApiUrl = githubApiUrl;
+        this.githubToken = githubToken;
+        this.maxConcurrentPages = maxConcurrentPages;
+    }
+
+    /**
+     * Fetches all pages of a listing.
+     * @param path path of the listing together with query params, e.g.
+     * {@code /repos/micrometer-metrics/micrometer/milestones?per_page=100}
+     * @param pageConsumer receives the body of every page, in page order
+     */
+    public void fetchPages(String path, Consumer<String> pageConsumer) {
+        HttpResponse<String> firstPage = send(githubApiUrl + path);
+        pageConsumer.accept(firstPage.body());
+        String lastPageUrl = firstPage.headers().firstValue("Link").map(GithubPaginator::lastPageUrl).orElse(null);
+        if (lastPageUrl == null) {
+            return;
+        }
+        Matcher lastPage = PAGE_PARAM.matcher(lastPageUrl);
+        if (!lastPage.find()) {
+            throw new IllegalStateException("Can't find the page number in [" + lastPageUrl + "]");
+        }
+        int lastPageNumber = Integer.parseInt(lastPage.group(2));
+        log.info("Will fetch pages [2-{}] of [{}] with at most [{}] concurrent requests", lastPageNumber, path,
+                maxConcurrentPages);
+        Semaphore permits = new Semaphore(maxConcurrentPages);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<String>> pages = new ArrayList<>();
+            for (int page = 2; page <= lastPageNumber; page++) {
+                String pageUrl = lastPage.replaceFirst("$1page=" + page);
+                pages.add(CompletableFuture.supplyAsync(() -> sendWithPermit(pageUrl, permits), executor));
+            }
+            for (CompletableFuture<String> page : pages) {
+                pageConsumer.accept(join(page));
+            }
+        }
+    }
+
+    private String sendWithPermit(String pageUrl, Semaphore permits) {
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        try {
+            return send(pageUrl).body();
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    private HttpResponse<String> send(String url) {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .header("Authorization", "Bearer " + githubToken)
+            .header("Accept", "application/vnd.github.v3+json")
+            .GET()
+            .build();
+        try {
+            log.debug("Will send a GET request to {}", url);
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException(
+                        "Failed to fetch [" + url + "], status code [" + response.statusCode() + "]");
+            }
+            return response;
+        }
+        catch (IOException | InterruptedException e) {
+            throw new IllegalStateException("Failed to fetch [" + url + "]", e);
+        }
+    }
+
+    private static String join(CompletableFuture<String> page) {
+        try {
+            return page.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    // <https://api.github.com/repositories/1/issues?page=2>; rel="next",
+    // <https://api.github.com/repositories/1/issues?page=5>; rel="last"
+    private static String lastPageUrl(String linkHeader) {
+        Matcher matcher = LAST_PAGE_LINK.matcher(linkHeader);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+}
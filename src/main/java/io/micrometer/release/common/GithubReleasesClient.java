@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Talks to the GitHub Releases API directly instead of forking {@code gh release}.
+ * Release bodies are passed around as strings, so no temporary notes files are needed.
+ */
+public class GithubReleasesClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubReleasesClient.class);
+
+    private final HttpClient httpClient;
+
+    private final String githubApiUrl;
+
+    private final String githubToken;
+
+    public GithubReleasesClient() {
+        this(ReleaseHttpClient.shared(), GithubPaginator.GITHUB_API_URL, Input.getGhToken());
+    }
+
+    // for tests
+    public GithubReleasesClient(HttpClient httpClient, String githubApiUrl, String githubToken) {
+        this.httpClient = httpClient;
+        this.githubApiUrl = githubApiUrl;
+        this.githubToken = githubToken;
+    }
+
+    /**
+     * Creates a release together with its tag.
+     * @param orgRepo e.g. {@code micrometer-metrics/micrometer}
+     * @param tag e.g. {@code v1.14.9}
+     * @param target branch from which the tag gets created
+     * @param title title of the release
+     */
+    public void createRelease(String orgRepo, String tag, String target, String title) {
+        log.info("Creating GitHub release [{}] for [{}] from [{}]", tag, orgRepo, target);
+        send(HttpRequest.newBuilder()
+            .uri(URI.create(githubApiUrl + "/repos/" + orgRepo + "/releases"))
+            .POST(jsonBody(Map.of("tag_name", tag, "target_commitish", target, "name", title))));
+    }
+
+    /**
+     * Returns the release for the given tag.
+     * @param orgRepo e.g. {@code micrometer-metrics/micrometer}
+     * @param tag e.g. {@code v1.14.9}
+     * @return release
+     */
+    public Release getRelease(String orgRepo, String tag) {
+        String body = send(HttpRequest.newBuilder()
+            .uri(URI.create(githubApiUrl + "/repos/" + orgRepo + "/releases/tags/" + tag))
+            .GET());
+        return JsonCodec.read(body, Release.class);
+    }
+
+    /**
+     * Sets the body of the release for the given tag. The release is left untouched when
+     * its current body is the same as the new one.
+     * @param orgRepo e.g. {@code micrometer-metrics/micrometer}
+     * @param tag e.g. {@code v1.14.9}
+     * @param notes new body of the release
+     * @return {@code true} when the release got updated
+     */
+    public boolean updateReleaseNotes(String orgRepo, String tag, String notes) {
+        Release release = getRelease(orgRepo, tag);
+        if (sha256(release.body()).equals(sha256(notes))) {
+            log.info("Release notes of [{}] are already up to date, won't update them", tag);
+            return false;
+        }
+        log.info("Updating release notes of [{}]", tag);
+        send(HttpRequest.newBuilder()
+            .uri(URI.create(githubApiUrl + "/repos/" + orgRepo + "/releases/" + release.id()))
+            .method("PATCH", jsonBody(Map.of("body", notes))));
+        return true;
+    }
+
+    private String send(HttpRequest.Builder builder) {
+        HttpRequest request = builder.header("Authorization", "Bearer " + githubToken)
+            .header("Accept", "application/vnd.github+json")
+            .header("Content-Type", "application/json")
+            .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Request " + request.method() + " [" + request.uri()
+                        + "] failed with status code [" + response.statusCode() + "] and body [" + response.body()
+                        + "]");
+            }
+            return response.body();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher jsonBody(Map<String, String> body) {
+        return HttpRequest.BodyPublishers.ofString(JsonCodec.write(body));
+    }
+
+    // GitHub stores the body with the line endings it got, we compare the content only
+    private static String sha256(String text) {
+        String normalized = text == null ? "" : text.replace("\r\n", "\n").strip();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Release(@JsonProperty("id") long id, @JsonProperty("tag_name") String tagName,
+            @JsonProperty("body") String body) {
+
+    }
+
+}
@@ -31,6 +31,10 @@ public class GradleParser {
 
     private static final Pattern PROJECTS_LINE_PATTERN = Pattern.compile("Project ':([\\w-]+)'");
 
+    // e.g. :micrometer-core:publishNebulaPublicationToMavenLocal SKIPPED
+    private static final Pattern PUBLISH_TASK_PATTERN = Pattern
+        .compile("^:([\\w-]+):publish\\w+PublicationToMavenLocal\\b");
+
     private final List<String> excludedDependencyScopes = List.of("testCompile", "testImplementation", "checkstyle",
             "runtime", "nohttp", "testRuntime", "optional");
 
@@ -87,6 +91,27 @@ public class GradleParser {
         return dependencies;
     }
 
+    /**
+     * Subprojects without a publication (samples, benchmarks, docs etc.) are left out.
+     * Their publish tasks are listed with a dry run, nothing gets built or published.
+     * @return names of the subprojects that get published, e.g.
+     * {@code micrometer-registry-prometheus}
+     */
+    public List<String> fetchPublishedSubprojects() {
+        return getPublishedSubprojects(
+                processRunner.runSilently(List.of("./gradlew", "publishToMavenLocal", "--dry-run")));
+    }
+
+    // Visible for testing
+    static List<String> getPublishedSubprojects(List<String> taskLines) {
+        return taskLines.stream()
+            .map(PUBLISH_TASK_PATTERN::matcher)
+            .filter(Matcher::find)
+            .map(matcher -> matcher.group(1))
+            .distinct()
+            .toList();
+    }
+
     // Visible for testing
     static List<String> getSubprojects(List<String> projectLines) {
         return projectLines.stream()
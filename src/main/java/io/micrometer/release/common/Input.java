@@ -33,6 +33,32 @@ public class Input {
         }
     }
 
+    /**
+     * @param envVariable name of the env variable the value comes from
+     * @param value value of the env variable
+     * @return the number, {@code null} when the value isn't set
+     * @throws IllegalArgumentException when the value isn't a whole number of at least 1
+     */
+    public static Integer positiveNumber(String envVariable, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number >= 1) {
+                return number;
+            }
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(notPositiveNumber(envVariable, value), e);
+        }
+        throw new IllegalArgumentException(notPositiveNumber(envVariable, value));
+    }
+
+    private static String notPositiveNumber(String envVariable, String value) {
+        return "The " + envVariable + " env variable must be a whole number of at least 1 but was [" + value + "]";
+    }
+
     public static String getTestMode() {
         return System.getenv("TEST_MODE");
     }
@@ -77,6 +103,42 @@ public class Input {
         return System.getenv("CHANGELOG_GENERATOR_VERSION");
     }
 
+    public static String getChangelogGeneratorSha256() {
+        return System.getenv("CHANGELOG_GENERATOR_SHA256");
+    }
+
+    public static String getChangelogGeneratorCacheDir() {
+        return System.getenv("CHANGELOG_GENERATOR_CACHE_DIR");
+    }
+
+    public static String getChangelogDebugDir() {
+        return System.getenv("CHANGELOG_DEBUG_DIR");
+    }
+
+    public static String getChangelogEngine() {
+        return System.getenv("CHANGELOG_ENGINE");
+    }
+
+    public static String getPostReleaseConcurrency() {
+        return System.getenv("POST_RELEASE_CONCURRENCY");
+    }
+
+    public static String getHeavyProcessConcurrency() {
+        return System.getenv("HEAVY_PROCESS_CONCURRENCY");
+    }
+
+    public static String getCiGate() {
+        return System.getenv("CI_GATE");
+    }
+
+    public static String getCiRequiredChecks() {
+        return System.getenv("CI_REQUIRED_CHECKS");
+    }
+
+    public static String getMavenCentralVerification() {
+        return System.getenv("MAVEN_CENTRAL_VERIFICATION");
+    }
+
     public static String getGChatWebhookUrl() {
         return System.getenv("SPRING_RELEASE_GCHAT_WEBHOOK_URL");
     }
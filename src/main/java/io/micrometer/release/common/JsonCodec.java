@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON reading and writing for everything the release talks to (GitHub, CircleCI,
+ * Bluesky, {@code gh} output). Payloads are bound to records that declare only the
+ * fields we use. Arrays and nested values are streamed with a {@link JsonParser}, and
+ * everything else in the payload is skipped without building a tree.
+ */
+public final class JsonCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Binds a whole payload.
+     */
+    public static <T> T read(String json, Class<T> type) {
+        try {
+            return OBJECT_MAPPER.readValue(json, type);
+        }
+        catch (IOException e) {
+            throw failure(json, type, e);
+        }
+    }
+
+    /**
+     * Binds the objects of a top level array, e.g. a page of issues.
+     */
+    public static <T> List<T> readArray(String json, Class<T> type) {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Expected a JSON array but got [" + json + "]");
+            }
+            return readElements(parser, type);
+        }
+        catch (IOException e) {
+            throw failure(json, type, e);
+        }
+    }
+
+    /**
+     * Binds the objects of an array held by a top level field, e.g. {@code items} of a
+     * CircleCI response or {@code workflow_runs} of GitHub Actions runs. Other fields are
+     * skipped.
+     * @return elements or an empty list when there's no such field
+     */
+    public static <T> List<T> readArray(String json, String field, Class<T> type) {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Expected a JSON object but got [" + json + "]");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals(name) && value == JsonToken.START_ARRAY) {
+                    return readElements(parser, type);
+                }
+                parser.skipChildren();
+            }
+            return List.of();
+        }
+        catch (IOException e) {
+            throw failure(json, type, e);
+        }
+    }
+
+    /**
+     * Reads a single value from nested objects, e.g. {@code readText(json, "commit",
+     * "rev")}.
+     * @return value as text or {@code null} when it's missing or not a scalar
+     */
+    public static String readText(String json, String... path) {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            int depth = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!path[depth].equals(name)) {
+                    parser.skipChildren();
+                }
+                else if (depth == path.length - 1) {
+                    return value.isScalarValue() && value != JsonToken.VALUE_NULL ? parser.getText() : null;
+                }
+                else if (value == JsonToken.START_OBJECT) {
+                    depth++;
+                }
+                else {
+                    return null;
+                }
+            }
+            return null;
+        }
+        catch (IOException e) {
+            throw failure(json, String.class, e);
+        }
+    }
+
+    /**
+     * For payloads whose shape isn't known upfront, e.g. GraphQL responses with aliases.
+     */
+    public static JsonNode readTree(String json) {
+        try {
+            return OBJECT_MAPPER.readTree(json);
+        }
+        catch (IOException e) {
+            throw failure(json, JsonNode.class, e);
+        }
+    }
+
+    public static String write(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Failed to write [" + value + "] as JSON", e);
+        }
+    }
+
+    private static <T> List<T> readElements(JsonParser parser, Class<T> type) throws IOException {
+        List<T> elements = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                elements.add(parser.readValueAs(type));
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        return elements;
+    }
+
+    private static IllegalStateException failure(String json, Class<?> type, IOException e) {
+        return new IllegalStateException("Failed to parse [" + json + "] as " + type.getSimpleName(), e);
+    }
+
+}
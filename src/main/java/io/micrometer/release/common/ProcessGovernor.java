@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many heavy commands run at the same time on the runner. Gradle builds and
+ * repository clones take several cores and a Gradle daemon's worth of memory each. When
+ * every released version runs them at once, the runner thrashes and they all get slower.
+ * The limit is derived from the cores and memory of the runner. Light commands (git
+ * config, pushes, GitHub CLI calls) are never throttled.
+ */
+class ProcessGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessGovernor.class);
+
+    private static final int CORES_PER_HEAVY_PROCESS = 2;
+
+    // A Gradle daemon together with its workers
+    private static final long MEMORY_PER_HEAVY_PROCESS = 2L * 1024 * 1024 * 1024;
+
+    // Created on first use, so that an invalid limit fails the command that needs it with
+    // a clear message instead of breaking class loading
+    private static volatile ProcessGovernor instance;
+
+    private final Semaphore permits;
+
+    private final int maxHeavyProcesses;
+
+    // for tests
+    ProcessGovernor(int maxHeavyProcesses) {
+        this.permits = new Semaphore(maxHeavyProcesses, true);
+        this.maxHeavyProcesses = maxHeavyProcesses;
+    }
+
+    static ProcessGovernor shared() {
+        ProcessGovernor governor = instance;
+        if (governor == null) {
+            synchronized (ProcessGovernor.class) {
+                governor = instance;
+                if (governor == null) {
+                    governor = new ProcessGovernor(maxHeavyProcesses(Input.getHeavyProcessConcurrency()));
+                    instance = governor;
+                }
+            }
+        }
+        return governor;
+    }
+
+    <T> T run(String[] command, Supplier<T> process) {
+        if (!isHeavy(command)) {
+            return process.get();
+        }
+        acquire(command);
+        try {
+            return process.get();
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    private void acquire(String[] command) {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        log.info("There are already [{}] heavy commands running, command {} will wait for one of them to finish",
+                maxHeavyProcesses, (Object) command);
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean isHeavy(String[] command) {
+        if (command.length == 0) {
+            return false;
+        }
+        String executable = command[0];
+        if (executable.endsWith("gradlew") || executable.equals("gradle")) {
+            return true;
+        }
+        return command.length > 1 && ((executable.equals("git") && command[1].equals("clone"))
+                || (executable.equals("gh") && command.length > 2 && command[1].equals("repo")
+                        && command[2].equals("clone")));
+    }
+
+    // Without a permit no heavy command ever runs, so less than one is rejected
+    static int maxHeavyProcesses(String heavyProcessConcurrency) {
+        Integer configured = Input.positiveNumber("HEAVY_PROCESS_CONCURRENCY", heavyProcessConcurrency);
+        if (configured != null) {
+            return configured;
+        }
+        int byCores = Runtime.getRuntime().availableProcessors() / CORES_PER_HEAVY_PROCESS;
+        int byMemory = (int) Math.min(Integer.MAX_VALUE, totalMemory() / MEMORY_PER_HEAVY_PROCESS);
+        int maxHeavyProcesses = Math.max(1, Math.min(byCores, byMemory));
+        log.info("Will run at most [{}] heavy commands at the same time ([{}] by cores, [{}] by memory)",
+                maxHeavyProcesses, byCores, byMemory);
+        return maxHeavyProcesses;
+    }
+
+    private static long totalMemory() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getTotalMemorySize();
+        }
+        // Can't tell, so only the cores count
+        return Long.MAX_VALUE;
+    }
+
+}
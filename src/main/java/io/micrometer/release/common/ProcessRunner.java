@@ -58,6 +58,7 @@ public class ProcessRunner {
     public ProcessRunner(ProcessRunner processRunner, File directory) {
         this.orgRepo = processRunner.orgRepo;
         this.directory = directory;
+        this.envVars.putAll(processRunner.envVars);
     }
 
     public ProcessRunner withEnvVars(Map<String, String> envVars) {
@@ -90,8 +91,13 @@ public class ProcessRunner {
     }
 
     private List<String> run(boolean shouldLog, String... command) {
-        List<String> lines = new ArrayList<>();
         String[] processedCommand = processCommand(command);
+        // Gradle builds and clones of parallel versions must not thrash the runner
+        return ProcessGovernor.shared().run(processedCommand, () -> doRun(shouldLog, processedCommand));
+    }
+
+    private List<String> doRun(boolean shouldLog, String[] processedCommand) {
+        List<String> lines = new ArrayList<>();
         try {
             log.info("About to start command {}", (Object) processedCommand);
             Process process = startProcess(processedCommand);
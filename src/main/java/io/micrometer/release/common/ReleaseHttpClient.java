@@ -0,0 +1,331 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The {@link HttpClient} of the whole release. It's an HTTP/2 client running on virtual
+ * threads that every component shares, so connections and TLS sessions get reused
+ * across all the projects and versions of a release. On top of the JDK client it
+ * <ul>
+ * <li>asks for gzip compressed responses and transparently decompresses them,</li>
+ * <li>applies a default request timeout to requests that don't set one,</li>
+ * <li>limits the number of concurrent requests per host.</li>
+ * </ul>
+ */
+public final class ReleaseHttpClient extends HttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ReleaseHttpClient.class);
+
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(1);
+
+    static final int MAX_CONCURRENT_REQUESTS_PER_HOST = 16;
+
+    private static final ReleaseHttpClient SHARED = new ReleaseHttpClient(MAX_CONCURRENT_REQUESTS_PER_HOST,
+            REQUEST_TIMEOUT);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient delegate;
+
+    private final int maxConcurrentRequestsPerHost;
+
+    private final Duration requestTimeout;
+
+    private final Map<String, Semaphore> permitsPerHost = new ConcurrentHashMap<>();
+
+    // for tests
+    ReleaseHttpClient(int maxConcurrentRequestsPerHost, Duration requestTimeout) {
+        this.delegate = HttpClient.newBuilder()
+            .version(Version.HTTP_2)
+            .followRedirects(Redirect.NORMAL)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .executor(executor)
+            .build();
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @return the client shared by all the components of the release
+     */
+    public static HttpClient shared() {
+        return SHARED;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        Semaphore permits = permits(request);
+        permits.acquire();
+        try {
+            return delegate.send(withDefaults(request), gzipAware(responseBodyHandler));
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            BodyHandler<T> responseBodyHandler) {
+        // Blocking on a virtual thread is cheap and keeps the per host limit in one place
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request, responseBodyHandler);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> responseBodyHandler,
+            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return CompletableFuture.supplyAsync(() -> {
+            Semaphore permits = permits(request);
+            try {
+                permits.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            try {
+                return delegate
+                    .sendAsync(withDefaults(request), gzipAware(responseBodyHandler), pushPromiseHandler)
+                    .join();
+            }
+            finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private Semaphore permits(HttpRequest request) {
+        return permitsPerHost.computeIfAbsent(String.valueOf(request.uri().getHost()),
+                host -> new Semaphore(maxConcurrentRequestsPerHost));
+    }
+
+    private HttpRequest withDefaults(HttpRequest request) {
+        boolean hasTimeout = request.timeout().isPresent();
+        boolean hasEncoding = request.headers().firstValue("Accept-Encoding").isPresent();
+        if (hasTimeout && hasEncoding) {
+            return request;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (!hasTimeout) {
+            builder.timeout(requestTimeout);
+        }
+        if (!hasEncoding) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private static <T> BodyHandler<T> gzipAware(BodyHandler<T> responseBodyHandler) {
+        return responseInfo -> {
+            boolean gzipped = responseInfo.headers()
+                .firstValue("Content-Encoding")
+                .filter(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .isPresent();
+            if (!gzipped) {
+                return responseBodyHandler.apply(responseInfo);
+            }
+            log.debug("Will decompress a gzip response");
+            return new GunzippingBodySubscriber<>(responseBodyHandler.apply(responseInfo));
+        };
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    /**
+     * Collects the compressed body and hands it over, decompressed, to the subscriber of
+     * the caller's body handler.
+     */
+    private static final class GunzippingBodySubscriber<T> implements BodySubscriber<T> {
+
+        private final BodySubscriber<T> downstream;
+
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        private GunzippingBodySubscriber(BodySubscriber<T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            for (ByteBuffer buffer : item) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                compressed.writeBytes(bytes);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onSubscribe(new SingleItemSubscription(() -> {
+            }));
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // e.g. HEAD requests
+            if (compressed.size() == 0) {
+                deliver(new byte[0]);
+                return;
+            }
+            byte[] decompressed;
+            try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+                decompressed = gzip.readAllBytes();
+            }
+            catch (IOException e) {
+                onError(e);
+                return;
+            }
+            deliver(decompressed);
+        }
+
+        private void deliver(byte[] body) {
+            downstream.onSubscribe(new SingleItemSubscription(() -> {
+                downstream.onNext(List.of(ByteBuffer.wrap(body)));
+                downstream.onComplete();
+            }));
+        }
+
+    }
+
+    // Delivers the outcome once the downstream subscriber asks for anything
+    private static final class SingleItemSubscription implements Flow.Subscription {
+
+        private final Runnable delivery;
+
+        private boolean done;
+
+        private SingleItemSubscription(Runnable delivery) {
+            this.delivery = delivery;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (done || n <= 0) {
+                return;
+            }
+            done = true;
+            delivery.run();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            done = true;
+        }
+
+    }
+
+}
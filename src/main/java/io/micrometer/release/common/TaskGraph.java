@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A small graph of steps executed on virtual threads. A step starts as soon as all the
+ * steps it depends on are done, so independent steps overlap. The duration of every step
+ * is recorded and logged once the graph is awaited.
+ */
+public class TaskGraph implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskGraph.class);
+
+    private final String name;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final List<Step<?>> steps = new ArrayList<>();
+
+    private final Map<String, Duration> durations = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public TaskGraph(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a step that produces a value.
+     * @param stepName name used for logging and durations
+     * @param action produces the value of the step
+     * @param dependencies steps that have to complete before this one starts
+     * @return the step, to be used as a dependency of other steps
+     */
+    public <T> Step<T> supply(String stepName, Supplier<T> action, Step<?>... dependencies) {
+        CompletableFuture<T> future = CompletableFuture
+            .allOf(Arrays.stream(dependencies).map(step -> step.future).toArray(CompletableFuture[]::new))
+            .thenApplyAsync(ignored -> timed(stepName, action), executor);
+        Step<T> step = new Step<>(stepName, future);
+        steps.add(step);
+        return step;
+    }
+
+    /**
+     * Adds a step that doesn't produce a value.
+     * @param stepName name used for logging and durations
+     * @param action action of the step
+     * @param dependencies steps that have to complete before this one starts
+     * @return the step, to be used as a dependency of other steps
+     */
+    public Step<Void> run(String stepName, Runnable action, Step<?>... dependencies) {
+        return supply(stepName, () -> {
+            action.run();
+            return null;
+        }, dependencies);
+    }
+
+    /**
+     * Waits for all the steps to complete. When a step fails, the steps depending on it
+     * are not executed and its exception is rethrown.
+     */
+    public void await() {
+        long start = System.nanoTime();
+        try {
+            CompletableFuture.allOf(steps.stream().map(step -> step.future).toArray(CompletableFuture[]::new)).join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        finally {
+            log.info("[{}] finished in [{}] ms, step durations {}", name,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), durationsInMillis());
+        }
+    }
+
+    /**
+     * Durations of the steps that finished so far, in completion order.
+     * @return step name to its duration
+     */
+    public Map<String, Duration> durations() {
+        synchronized (durations) {
+            return new LinkedHashMap<>(durations);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> T timed(String stepName, Supplier<T> action) {
+        log.info("[{}] Starting step [{}]", name, stepName);
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        }
+        finally {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            durations.put(stepName, duration);
+            log.info("[{}] Step [{}] took [{}] ms", name, stepName, duration.toMillis());
+        }
+    }
+
+    private Map<String, Long> durationsInMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        durations().forEach((stepName, duration) -> millis.put(stepName, duration.toMillis()));
+        return millis;
+    }
+
+    public static final class Step<T> {
+
+        private final String name;
+
+        private final CompletableFuture<T> future;
+
+        private Step(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        /**
+         * Value of the step. Meant to be called from the steps depending on it, which
+         * run only once this step is done.
+         * @return value produced by the step
+         */
+        public T get() {
+            return future.join();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+}
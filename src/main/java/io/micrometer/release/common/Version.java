@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed version such as {@code 1.14.4}, {@code 1.15.0-M2} or {@code 1.15.0-RC1}. A
+ * leading {@code v} (as in git tags) is ignored. Instances are interned, so a version
+ * string is parsed once per run and comparing versions doesn't touch strings. Missing
+ * numbers count as zeros, so {@code 1.0} equals {@code 1.0.0} - for {@link #equals} and
+ * {@link #hashCode} too, consistently with {@link #compareTo}.
+ */
+public final class Version implements Comparable<Version> {
+
+    private static final Map<String, Version> VERSIONS = new ConcurrentHashMap<>();
+
+    private static final Pattern MILESTONE_OR_RC = Pattern.compile("(M|RC)(\\d+)");
+
+    private static final int MAX_MILESTONE = 3;
+
+    private final String version;
+
+    private final int[] numbers;
+
+    // null for GA versions
+    private final String qualifier;
+
+    // M -> 1, RC -> 2, GA -> 3, anything else -> 0
+    private final int qualifierRank;
+
+    private final int qualifierNumber;
+
+    private Version(String version, int[] numbers, String qualifier, int qualifierRank, int qualifierNumber) {
+        this.version = version;
+        this.numbers = numbers;
+        this.qualifier = qualifier;
+        this.qualifierRank = qualifierRank;
+        this.qualifierNumber = qualifierNumber;
+    }
+
+    public static Version parse(String version) {
+        String withoutPrefix = version.startsWith("v") ? version.substring(1) : version;
+        return VERSIONS.computeIfAbsent(withoutPrefix, Version::doParse);
+    }
+
+    private static Version doParse(String version) {
+        int dash = version.indexOf('-');
+        String numbersPart = dash == -1 ? version : version.substring(0, dash);
+        String qualifier = dash == -1 ? null : version.substring(dash + 1);
+        String[] parts = numbersPart.split("\\.");
+        int[] numbers = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                numbers[i] = Integer.parseInt(parts[i]);
+            }
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Version [" + version + "] has an invalid format", e);
+        }
+        if (qualifier == null) {
+            return new Version(version, numbers, null, 3, 0);
+        }
+        Matcher matcher = MILESTONE_OR_RC.matcher(qualifier);
+        if (matcher.matches()) {
+            int rank = "M".equals(matcher.group(1)) ? 1 : 2;
+            return new Version(version, numbers, qualifier, rank, Integer.parseInt(matcher.group(2)));
+        }
+        return new Version(version, numbers, qualifier, 0, 0);
+    }
+
+    /**
+     * @return e.g. {@code 1.14} for {@code 1.14.4}
+     */
+    public String majorMinor() {
+        return number(0) + "." + number(1);
+    }
+
+    public boolean isGa() {
+        return qualifier == null;
+    }
+
+    /**
+     * Version that follows this one in our release cadence: {@code 1.0.0-M1 -> 1.0.0-M2},
+     * {@code 1.0.0-M3 -> 1.0.0-RC1}, {@code 1.0.0-RC1 -> 1.0.0} and
+     * {@code 1.0.0 -> 1.0.1}.
+     */
+    public Version next() {
+        if (isGa()) {
+            if (numbers.length < 3) {
+                throw new IllegalStateException("Version [" + version + "] contains invalid format");
+            }
+            return parse(numbers[0] + "." + numbers[1] + "." + (numbers[2] + 1));
+        }
+        String base = version.substring(0, version.indexOf('-'));
+        if (qualifierRank == 1 && qualifierNumber >= 1 && qualifierNumber < MAX_MILESTONE) {
+            return parse(base + "-M" + (qualifierNumber + 1));
+        }
+        if (qualifierRank == 1 && qualifierNumber == MAX_MILESTONE) {
+            return parse(base + "-RC1");
+        }
+        if (qualifierRank == 2 && qualifierNumber == 1) {
+            return parse(base);
+        }
+        throw new IllegalStateException(
+                "Milestone title [" + version + "] contains invalid format (we accept M[1-3] or RC1)");
+    }
+
+    private int number(int index) {
+        return index < numbers.length ? numbers[index] : 0;
+    }
+
+    @Override
+    public int compareTo(Version other) {
+        if (this == other) {
+            return 0;
+        }
+        int length = Math.max(numbers.length, other.numbers.length);
+        for (int i = 0; i < length; i++) {
+            int result = Integer.compare(number(i), other.number(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        int result = Integer.compare(qualifierRank, other.qualifierRank);
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(qualifierNumber, other.qualifierNumber);
+        if (result != 0 || qualifier == null) {
+            return result;
+        }
+        return qualifier.compareTo(other.qualifier);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Version other)) {
+            return false;
+        }
+        return compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        // Trailing zeros don't change the version
+        int length = numbers.length;
+        while (length > 0 && numbers[length - 1] == 0) {
+            length--;
+        }
+        return 31 * Arrays.hashCode(Arrays.copyOf(numbers, length)) + Objects.hashCode(qualifier);
+    }
+
+    @Override
+    public String toString() {
+        return version;
+    }
+
+}
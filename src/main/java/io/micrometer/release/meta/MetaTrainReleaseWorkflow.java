@@ -17,13 +17,20 @@ package io.micrometer.release.meta;
 
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 import io.micrometer.release.train.ProjectTrainReleaseWorkflow;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
+import io.micrometer.release.train.TrainOptions.ProjectVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MetaTrainReleaseWorkflow {
 
@@ -35,18 +42,67 @@ public class MetaTrainReleaseWorkflow {
         this.postReleaseWorkflow = postReleaseWorkflow;
     }
 
+    /**
+     * Releases the projects of the meta train. Every version of a project is released as
+     * soon as the versions it depends on are available in Maven Central, independent
+     * versions are released concurrently.
+     * @param projectSetups projects to release
+     */
     public void run(List<ProjectSetup> projectSetups) {
         log.info("Starting meta release...");
-        projectSetups.forEach(projectSetup -> {
-            log.info("Running single release train for project [{}] and {} versions...", projectSetup.ghOrgRepo(),
-                    projectSetup.versionsForThisProject());
-            newProjectTrainReleaseWorkflow(projectSetup).run(projectSetup);
-            log.info("Single release train for project [{}] and {} versions completed!", projectSetup.ghOrgRepo(),
-                    projectSetup.versionsForThisProject());
+        // One future per (project, version) node of the train
+        Map<ProjectVersion, CompletableFuture<Void>> inCentral = new LinkedHashMap<>();
+        projectSetups.forEach(projectSetup -> projectSetup.versionsForThisProject()
+            .forEach(version -> inCentral.put(new ProjectVersion(projectSetup.ghOrgRepo(), version),
+                    new CompletableFuture<>())));
+        // One notification per notifier for the whole meta train
+        TrainNotifications trainNotifications = trainNotifications();
+        trainNotifications.sendAfter(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<CompletableFuture<Void>> projects = projectSetups.stream()
+                    .map(projectSetup -> CompletableFuture
+                        .runAsync(() -> runProject(projectSetup, trainNotifications, inCentral), executor))
+                    .toList();
+                CompletableFuture.allOf(projects.toArray(new CompletableFuture[0])).join();
+            }
         });
         log.info("Meta release completed!");
     }
 
+    private void runProject(ProjectSetup projectSetup, TrainNotifications trainNotifications,
+            Map<ProjectVersion, CompletableFuture<Void>> inCentral) {
+        Map<String, CompletableFuture<Void>> versionsInCentral = new LinkedHashMap<>();
+        projectSetup.versionsForThisProject()
+            .forEach(version -> versionsInCentral.put(version,
+                    inCentral.get(new ProjectVersion(projectSetup.ghOrgRepo(), version))));
+        log.info("Running single release train for project [{}] and {} versions...", projectSetup.ghOrgRepo(),
+                projectSetup.versionsForThisProject());
+        try {
+            newProjectTrainReleaseWorkflow(projectSetup).run(projectSetup, trainNotifications,
+                    version -> dependenciesInCentral(projectSetup, version, inCentral), versionsInCentral);
+        }
+        catch (RuntimeException e) {
+            // Versions that depend on this project must not wait for it forever
+            versionsInCentral.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+        log.info("Single release train for project [{}] and {} versions completed!", projectSetup.ghOrgRepo(),
+                projectSetup.versionsForThisProject());
+    }
+
+    // Dependencies that aren't released with this train are already in Maven Central
+    private static CompletableFuture<Void> dependenciesInCentral(ProjectSetup projectSetup, String version,
+            Map<ProjectVersion, CompletableFuture<Void>> inCentral) {
+        List<ProjectVersion> dependencies = projectSetup.dependenciesOf(version)
+            .stream()
+            .filter(inCentral::containsKey)
+            .toList();
+        log.info("Version [{}] of project [{}] will be released once {} are available in Maven Central", version,
+                projectSetup.ghOrgRepo(), dependencies);
+        return CompletableFuture
+            .allOf(dependencies.stream().map(inCentral::get).toList().toArray(new CompletableFuture[0]));
+    }
+
     private ProjectTrainReleaseWorkflow newProjectTrainReleaseWorkflow(ProjectSetup projectSetup) {
         File projectSubfolder = new File(projectSetup.ghRepo());
         projectSubfolder.mkdirs();
@@ -55,6 +111,11 @@ public class MetaTrainReleaseWorkflow {
         return workflow(projectSetup, projectSubfolder);
     }
 
+    // for tests
+    TrainNotifications trainNotifications() {
+        return new TrainNotifications();
+    }
+
     ProjectTrainReleaseWorkflow workflow(ProjectSetup projectSetup, File projectSubfolder) {
         return new ProjectTrainReleaseWorkflow(new ProcessRunner(projectSetup.ghOrgRepo(), projectSubfolder),
                 postReleaseWorkflow);
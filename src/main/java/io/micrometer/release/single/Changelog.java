@@ -19,6 +19,7 @@ import io.micrometer.release.single.ChangelogSection.Section;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.*;
 
@@ -26,31 +27,69 @@ class Changelog {
 
     private final List<String> header = new ArrayList<>();
 
-    private final Map<Section, ChangelogSection> sections = new LinkedHashMap<>();
+    // Iterates in the declaration order of the sections
+    private final Map<Section, ChangelogSection> sections = new EnumMap<>(Section.class);
 
     ChangelogSection getSection(Section section) {
         return sections.computeIfAbsent(section, ChangelogSection::new);
     }
 
     List<String> getHeader() {
-        return new ArrayList<>(header);
+        return Collections.unmodifiableList(header);
     }
 
     Collection<ChangelogSection> getSections() {
-        return sections.values().stream().sorted(Comparator.comparing(ChangelogSection::getSection)).toList();
+        return Collections.unmodifiableCollection(sections.values());
+    }
+
+    // Non-empty sections with sorted entries
+    String toMarkdown() {
+        StringBuilder output = new StringBuilder();
+        try {
+            writeMarkdown(output);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    void writeMarkdown(Appendable output) throws IOException {
+        for (String line : header) {
+            output.append(line).append("\n");
+        }
+        for (ChangelogSection section : sections.values()) {
+            if (section.getEntries().isEmpty()) {
+                continue;
+            }
+            output.append("## ").append(section.getTitle()).append("\n\n");
+            for (String entry : section.getEntries()) {
+                output.append(entry).append("\n");
+            }
+            output.append("\n");
+        }
     }
 
     static Changelog parse(File file) throws IOException {
-        Changelog changelog = new Changelog();
-        List<String> lines = Files.readAllLines(file.toPath());
+        try (var lines = Files.lines(file.toPath())) {
+            return parse(lines.iterator());
+        }
+    }
+
+    static Changelog parse(String content) {
+        return parse(content.lines().iterator());
+    }
 
+    private static Changelog parse(Iterator<String> lines) {
+        Changelog changelog = new Changelog();
         ChangelogSection currentSection = null;
 
-        for (String line : lines) {
+        while (lines.hasNext()) {
+            String line = lines.next();
             if (line.startsWith("## ")) {
                 currentSection = changelog.getSection(Section.fromTitle(line.substring(3).trim()));
             }
-            else if (currentSection != null && !line.trim().isEmpty()) {
+            else if (currentSection != null && !line.isBlank()) {
                 currentSection.addEntry(line);
             }
 
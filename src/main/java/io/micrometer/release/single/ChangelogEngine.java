@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.single;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.release.single.ChangelogSection.Section;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the changelog of a release in-process, from the closed issues of its milestone
+ * that {@link MilestoneMigrator} already loaded. Uses the same sections and labels as the
+ * Spring GitHub Changelog Generator configuration in {@link ChangelogGenerator}, without
+ * starting another JVM or asking GitHub for the issues again.
+ */
+class ChangelogEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangelogEngine.class);
+
+    static final String NATIVE_ENGINE = "native";
+
+    // Like in the generator, an issue goes to the first section (in declaration order)
+    // that has any of its labels
+    private static final Map<Section, Set<String>> SECTION_LABELS = Map.of(Section.NOTEWORTHY,
+            Set.of("release notes"), Section.FEATURES, Set.of("enhancement"), Section.BUGS, Set.of("bug", "regression"),
+            Section.DOCUMENTATION, Set.of("doc-update", "documentation"), Section.UPGRADES,
+            Set.of("dependency-upgrade", "dependencies"));
+
+    private static final Set<String> EXCLUDED_CONTRIBUTORS = Set.of("shakuzen", "jonatan-ivanov");
+
+    // @Foo in a title must not notify the GitHub user foo
+    private static final Pattern MENTION = Pattern.compile("(?<![`\\w])(@[\\w-]+)");
+
+    /**
+     * @param githubRefName released tag
+     * @param issues closed issues and pull requests of the released milestone
+     * @return changelog of the release
+     */
+    Changelog generateChangelog(String githubRefName, List<Issue> issues) {
+        log.info("Generating changelog of [{}] from [{}] closed issues...", githubRefName, issues.size());
+        Changelog changelog = new Changelog();
+        Set<String> contributors = new TreeSet<>();
+        for (Issue issue : issues) {
+            Section section = sectionFor(issue);
+            if (section != null) {
+                changelog.getSection(section).addEntry(entry(issue));
+            }
+            if (issue.isPullRequest() && isContributor(issue.user())) {
+                contributors.add("@" + issue.user().login());
+            }
+        }
+        if (!contributors.isEmpty()) {
+            ChangelogSection contributorsSection = changelog.getSection(Section.CONTRIBUTORS);
+            contributorsSection.addEntry(ChangelogSection.CONTRIBUTORS_TEXT);
+            contributorsSection.addEntry(ChangelogSection.joinHandles(new ArrayList<>(contributors)));
+        }
+        return changelog;
+    }
+
+    private static Section sectionFor(Issue issue) {
+        for (Section section : Section.values()) {
+            Set<String> labels = SECTION_LABELS.getOrDefault(section, Set.of());
+            if (issue.labels().stream().map(Label::name).anyMatch(labels::contains)) {
+                return section;
+            }
+        }
+        return null;
+    }
+
+    private static String entry(Issue issue) {
+        String title = MENTION.matcher(issue.title().strip()).replaceAll("`$1`");
+        return "- " + title + " [#" + issue.number() + "](" + issue.htmlUrl() + ")";
+    }
+
+    private static boolean isContributor(User user) {
+        return user != null && !user.login().endsWith("[bot]") && !EXCLUDED_CONTRIBUTORS.contains(user.login());
+    }
+
+    record Issue(int number, String title, @JsonProperty("html_url") String htmlUrl, User user, List<Label> labels,
+            @JsonProperty("pull_request") PullRequest pullRequest) {
+
+        Issue {
+            labels = labels != null ? labels : List.of();
+        }
+
+        boolean isPullRequest() {
+            return pullRequest != null;
+        }
+
+    }
+
+    // Only present for pull requests
+    record PullRequest(String url) {
+
+    }
+
+    record User(String login) {
+
+    }
+
+    record Label(String name) {
+
+    }
+
+}
@@ -15,42 +15,33 @@
  */
 package io.micrometer.release.single;
 
+import io.micrometer.release.common.GithubReleasesClient;
 import io.micrometer.release.common.ProcessRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-
 class ChangelogFetcher {
 
     private static final Logger log = LoggerFactory.getLogger(ChangelogFetcher.class);
 
-    static final String OUTPUT_FILE = "old_changelog.md";
-
-    private final File outputFile;
-
     private final ProcessRunner processRunner;
 
+    private final GithubReleasesClient githubReleasesClient;
+
     public ChangelogFetcher(ProcessRunner processRunner) {
-        this.outputFile = new File(OUTPUT_FILE);
-        this.processRunner = processRunner;
+        this(processRunner, new GithubReleasesClient());
     }
 
     // for tests
-    ChangelogFetcher(File outputFile, ProcessRunner processRunner) {
-        this.outputFile = outputFile;
+    ChangelogFetcher(ProcessRunner processRunner, GithubReleasesClient githubReleasesClient) {
         this.processRunner = processRunner;
+        this.githubReleasesClient = githubReleasesClient;
     }
 
-    File fetchChangelog(String githubRefName) {
+    Changelog fetchChangelog(String githubRefName) {
         log.info("Fetching changelog for [{}]...", githubRefName);
-        // TODO: Move to a util
-        String githubOrgRepo = processRunner.getOrgRepo();
-        String orgName = githubOrgRepo.contains("/") ? githubOrgRepo.split("/")[0] : githubOrgRepo;
-        String repoName = githubOrgRepo.contains("/") ? githubOrgRepo.split("/")[1] : githubOrgRepo;
-        processRunner.run("sh", "-c", String.format("gh release view %s --repo %s/%s --json body --jq .body > %s",
-                githubRefName, orgName, repoName, outputFile.getAbsolutePath()));
-        return outputFile;
+        String body = githubReleasesClient.getRelease(processRunner.getOrgRepo(), githubRefName).body();
+        return Changelog.parse(body != null ? body : "");
     }
 
 }
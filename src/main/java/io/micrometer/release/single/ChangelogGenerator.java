@@ -19,6 +19,9 @@ import io.micrometer.release.common.Input;
 import io.micrometer.release.common.ProcessRunner;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,35 +30,45 @@ class ChangelogGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(ChangelogGenerator.class);
 
-    static final String DEFAULT_OUTPUT_FILE = "changelog.md";
-
     static final String GITHUB_API_URL = "https://api.github.com";
 
     private final String githubApi;
 
     private final String githubToken;
 
-    private final File outputFile;
-
     private final ProcessRunner processRunner;
 
     public ChangelogGenerator(ProcessRunner processRunner) {
         this.githubApi = GITHUB_API_URL;
         this.githubToken = Input.getGhToken();
-        this.outputFile = new File(DEFAULT_OUTPUT_FILE);
         this.processRunner = processRunner;
     }
 
     // for tests
-    ChangelogGenerator(String githubApi, File outputFile) {
+    ChangelogGenerator(String githubApi) {
         this.githubApi = githubApi;
-        this.outputFile = outputFile;
         this.githubToken = Input.getGhToken();
         this.processRunner = new ProcessRunner();
     }
 
-    File generateChangelog(String githubRefName, String githubOrgRepo, File jarPath) {
+    Changelog generateChangelog(String githubRefName, String githubOrgRepo, File jarPath) {
         log.info("Generating changelog...");
+        // The generator can only write to a file - each call gets its own, so that
+        // versions can be processed concurrently
+        Path outputFile = createTempFile(githubRefName);
+        try {
+            generateChangelog(githubRefName, githubOrgRepo, jarPath, outputFile.toFile());
+            return Changelog.parse(outputFile.toFile());
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Failed to read changelog generated for [" + githubRefName + "]", e);
+        }
+        finally {
+            outputFile.toFile().delete();
+        }
+    }
+
+    private void generateChangelog(String githubRefName, String githubOrgRepo, File jarPath, File outputFile) {
         // @formatter:off
         processRunner.run(getJava(), "-jar", jarPath.getAbsolutePath(),
             githubRefName.replace("v", ""),
@@ -77,7 +90,15 @@ class ChangelogGenerator {
             "--github.api-url=" + githubApi,
             "--github.token=" + githubToken);
         // @formatter:on
-        return outputFile;
+    }
+
+    private static Path createTempFile(String githubRefName) {
+        try {
+            return Files.createTempFile("changelog-" + githubRefName + "-", ".md");
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     String getJava() {
@@ -16,71 +16,172 @@
 package io.micrometer.release.single;
 
 import io.micrometer.release.common.Input;
+import io.micrometer.release.common.ReleaseHttpClient;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Downloads the GitHub Changelog Generator into a cache directory. Every version gets its
+ * own directory with the jar and a {@code .sha256} file holding the jar's checksum. A
+ * cached jar is only used when its content still matches that checksum (and the expected
+ * one, if provided), so a partial or corrupted download is never picked up.
+ */
 class ChangelogGeneratorDownloader {
 
     private static final Logger log = LoggerFactory.getLogger(ChangelogGeneratorDownloader.class);
 
     private static final String CHANGELOG_GENERATOR_JAR = "github-changelog-generator.jar";
 
-    private static final String DEFAULT_CHANGELOG_GENERATOR_VERSION = "0.0.12";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+
+    static final String DEFAULT_CHANGELOG_GENERATOR_VERSION = "0.0.12";
 
     static final String CHANGELOG_GENERATOR_URL = "https://github.com/spring-io/github-changelog-generator/releases/download/v%s/github-changelog-generator.jar";
 
+    // The jar is a few dozen MB, so we allow more than the default request timeout
+    private static final Duration DOWNLOAD_TIMEOUT = Duration.ofMinutes(5);
+
+    private final HttpClient httpClient;
+
     private final String changelogGeneratorUrl;
 
+    private final String changelogGeneratorVersion;
+
+    private final String expectedChecksum;
+
     private final File changelogGeneratorJar;
 
+    private final File checksumFile;
+
     // for tests
-    ChangelogGeneratorDownloader(String changelogGeneratorUrl, File changelogGeneratorJar) {
+    ChangelogGeneratorDownloader(HttpClient httpClient, String changelogGeneratorUrl, Path cacheDirectory,
+            String changelogGeneratorVersion, String expectedChecksum) {
+        this.httpClient = httpClient;
         this.changelogGeneratorUrl = changelogGeneratorUrl;
-        this.changelogGeneratorJar = changelogGeneratorJar;
+        this.changelogGeneratorVersion = changelogGeneratorVersion;
+        this.expectedChecksum = expectedChecksum == null || expectedChecksum.isBlank() ? null
+                : expectedChecksum.trim().toLowerCase();
+        Path versionDirectory = cacheDirectory.resolve(changelogGeneratorVersion);
+        this.changelogGeneratorJar = versionDirectory.resolve(CHANGELOG_GENERATOR_JAR).toFile();
+        this.checksumFile = versionDirectory.resolve(CHANGELOG_GENERATOR_JAR + CHECKSUM_SUFFIX).toFile();
     }
 
     ChangelogGeneratorDownloader() {
-        this.changelogGeneratorUrl = CHANGELOG_GENERATOR_URL;
-        this.changelogGeneratorJar = new File(CHANGELOG_GENERATOR_JAR);
+        this(ReleaseHttpClient.shared(), CHANGELOG_GENERATOR_URL, cacheDirectory(), changelogGeneratorVersion(),
+                Input.getChangelogGeneratorSha256());
     }
 
     File downloadChangelogGenerator() throws Exception {
-        if (!Files.exists(changelogGeneratorJar.toPath())) {
-            download();
+        if (isCached()) {
+            log.info("GitHub Changelog Generator [{}] already downloaded to [{}].", changelogGeneratorVersion,
+                    changelogGeneratorJar.getAbsolutePath());
         }
         else {
-            log.info("GitHub Changelog Generator already downloaded.");
+            download();
         }
         return changelogGeneratorJar;
     }
 
+    private boolean isCached() throws IOException {
+        if (!changelogGeneratorJar.isFile() || !checksumFile.isFile()) {
+            return false;
+        }
+        String storedChecksum = Files.readString(checksumFile.toPath()).trim();
+        if (expectedChecksum != null && !expectedChecksum.equals(storedChecksum)) {
+            log.warn("Cached GitHub Changelog Generator has checksum [{}] but [{}] was expected, will download it",
+                    storedChecksum, expectedChecksum);
+            return false;
+        }
+        String actualChecksum = sha256(changelogGeneratorJar.toPath());
+        if (!actualChecksum.equals(storedChecksum)) {
+            log.warn("Cached GitHub Changelog Generator is corrupted (checksum [{}] instead of [{}]), will download it",
+                    actualChecksum, storedChecksum);
+            return false;
+        }
+        return true;
+    }
+
     void download() throws Exception {
-        log.info("Downloading GitHub Changelog Generator to [{}]...", changelogGeneratorJar.getAbsolutePath());
-        String changelogGeneratorVersion = Input.getChangelogGeneratorVersion();
-        changelogGeneratorVersion = (changelogGeneratorVersion == null || changelogGeneratorVersion.isBlank())
-                ? DEFAULT_CHANGELOG_GENERATOR_VERSION : changelogGeneratorVersion;
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(changelogGeneratorUrl.formatted(changelogGeneratorVersion)))
-            .GET()
-            .build();
-        HttpClient client = HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.NORMAL) // This will follow redirects
-            .build();
-        HttpResponse<Path> response = client.send(request,
-                HttpResponse.BodyHandlers.ofFile(changelogGeneratorJar.toPath()));
-
-        if (response.statusCode() >= 400) {
-            throw new RuntimeException("Failed to download GitHub Changelog Generator");
+        log.info("Downloading GitHub Changelog Generator [{}] to [{}]...", changelogGeneratorVersion,
+                changelogGeneratorJar.getAbsolutePath());
+        Path directory = changelogGeneratorJar.toPath().getParent();
+        Files.createDirectories(directory);
+        // Download next to the target, so that the final move can be atomic
+        Path tempJar = Files.createTempFile(directory, CHANGELOG_GENERATOR_JAR, ".tmp");
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(changelogGeneratorUrl.formatted(changelogGeneratorVersion)))
+                .timeout(DOWNLOAD_TIMEOUT)
+                .GET()
+                .build();
+            HttpResponse<Path> response = httpClient.send(request, HttpResponse.BodyHandlers.ofFile(tempJar));
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Failed to download GitHub Changelog Generator, status code ["
+                        + response.statusCode() + "]");
+            }
+            String checksum = sha256(tempJar);
+            if (expectedChecksum != null && !expectedChecksum.equals(checksum)) {
+                throw new IllegalStateException("Downloaded GitHub Changelog Generator has checksum [" + checksum
+                        + "] but [" + expectedChecksum + "] was expected");
+            }
+            Path tempChecksum = Files.createTempFile(directory, CHANGELOG_GENERATOR_JAR + CHECKSUM_SUFFIX, ".tmp");
+            Files.writeString(tempChecksum, checksum);
+            // Jar first - a checksum file without a matching jar is treated as a cache miss
+            move(tempJar, changelogGeneratorJar.toPath());
+            move(tempChecksum, checksumFile.toPath());
+            log.info("GitHub Changelog Generator downloaded, checksum [{}]", checksum);
+        }
+        finally {
+            Files.deleteIfExists(tempJar);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
         }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String changelogGeneratorVersion() {
+        String version = Input.getChangelogGeneratorVersion();
+        return (version == null || version.isBlank()) ? DEFAULT_CHANGELOG_GENERATOR_VERSION : version;
+    }
+
+    private static Path cacheDirectory() {
+        String cacheDirectory = Input.getChangelogGeneratorCacheDir();
+        return (cacheDirectory == null || cacheDirectory.isBlank())
+                ? Path.of(System.getProperty("user.home"), ".cache", "github-changelog-generator")
+                : Path.of(cacheDirectory);
     }
 
 }
@@ -18,45 +18,44 @@ package io.micrometer.release.single;
 import io.micrometer.release.common.Dependency;
 import io.micrometer.release.common.GradleParser;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.common.Version;
 import io.micrometer.release.single.ChangelogSection.Section;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.nio.file.Files;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class ChangelogProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(ChangelogProcessor.class);
 
-    static final String OUTPUT_FILE = "changelog-output.md";
-
-    private final File outputFile;
+    private static final Pattern DEPENDENCY_UPGRADE = Pattern
+        .compile("- Bump (.+?) from ([\\d.]+) to ([\\d.]+) \\[(#[\\d]+)]\\((.+)\\)");
 
     private final GradleParser gradleParser;
 
     ChangelogProcessor(ProcessRunner processRunner) {
-        this.outputFile = new File(OUTPUT_FILE);
-        this.gradleParser = new GradleParser(processRunner);
+        this(new GradleParser(processRunner));
     }
 
-    ChangelogProcessor(File changelogOutput, GradleParser gradleParser) {
-        this.outputFile = changelogOutput;
+    // for tests
+    ChangelogProcessor(GradleParser gradleParser) {
         this.gradleParser = gradleParser;
     }
 
-    File processChangelog(File changelog, File oldChangelog) throws Exception {
+    String processChangelog(Changelog currentChangelog, Changelog oldChangelog) {
+        return processChangelog(currentChangelog, oldChangelog, fetchAllDependencies());
+    }
+
+    String processChangelog(Changelog currentChangelog, Changelog oldChangelog, Set<Dependency> dependencies) {
         log.info("Starting to process changelog...");
-        Set<Dependency> dependencies = fetchAllDependencies();
         Set<Dependency> testOrOptional = dependencies.stream().filter(Dependency::toIgnore).collect(Collectors.toSet());
 
-        Changelog currentChangelog = Changelog.parse(changelog);
-        Changelog oldChangelogContent = oldChangelog != null ? Changelog.parse(oldChangelog) : new Changelog();
+        Changelog oldChangelogContent = oldChangelog != null ? oldChangelog : new Changelog();
 
         // Merge changelogs
         for (ChangelogSection oldSection : oldChangelogContent.getSections()) {
@@ -73,60 +72,47 @@ class ChangelogProcessor {
         depsSection.clear();
         processedDeps.forEach(depsSection::addEntry);
 
-        try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath())) {
-
-            for (String line : currentChangelog.getHeader()) {
-                writer.write(line + "\n");
-            }
-
-            for (ChangelogSection section : currentChangelog.getSections()) {
-                List<String> sortedEntries = new ArrayList<>(section.getEntries());
-                if (sortedEntries.isEmpty()) {
-                    continue;
-                }
-                Collections.sort(sortedEntries);
-                writer.write("## " + section.getTitle() + "\n\n");
-                for (String entry : sortedEntries) {
-                    writer.write(entry + "\n");
-                }
-                writer.write("\n");
-            }
-        }
+        String output = currentChangelog.toMarkdown();
         log.info("Changelog processed");
-        return outputFile;
+        return output;
     }
 
-    private Set<Dependency> fetchAllDependencies() {
+    Set<Dependency> fetchAllDependencies() {
         return gradleParser.fetchAllDependencies();
     }
 
     private Collection<String> processDependencyUpgrades(Iterable<String> dependencyLines,
             Set<String> excludedDependencies) {
-        Map<String, DependencyUpgrade> upgrades = new HashMap<>();
-        Pattern pattern = Pattern.compile("- Bump (.+?) from ([\\d.]+) to ([\\d.]+) \\[(#[\\d]+)]\\((.+)\\)");
+        // Sorted by unit, one upgrade per unit
+        Map<String, DependencyUpgrade> upgrades = new TreeMap<>();
+        List<String> unparsedUpgrades = new ArrayList<>();
 
         for (String line : dependencyLines) {
-            Matcher matcher = pattern.matcher(line);
+            Matcher matcher = DEPENDENCY_UPGRADE.matcher(line);
             if (matcher.matches()) {
                 String unit = matcher.group(1);
-                String oldVersion = matcher.group(2);
-                String newVersion = matcher.group(3);
                 String prNumber = matcher.group(4);
                 String url = matcher.group(5);
 
                 if (!excludedDependencies.contains(unit)) {
-                    upgrades.putIfAbsent(unit, new DependencyUpgrade(unit, oldVersion, newVersion, url, prNumber));
-                    DependencyUpgrade existing = upgrades.get(unit);
-                    existing.updateVersions(oldVersion, newVersion);
+                    try {
+                        Version oldVersion = Version.parse(matcher.group(2));
+                        Version newVersion = Version.parse(matcher.group(3));
+                        upgrades
+                            .computeIfAbsent(unit,
+                                    key -> new DependencyUpgrade(key, oldVersion, newVersion, url, prNumber))
+                            .updateVersions(oldVersion, newVersion);
+                    }
+                    catch (IllegalArgumentException e) {
+                        log.warn("Will keep the dependency upgrade [{}] as is, its versions can't be compared: {}",
+                                line, e.getMessage());
+                        unparsedUpgrades.add(line);
+                    }
                 }
             }
         }
 
-        return upgrades.values()
-            .stream()
-            .sorted(Comparator.comparing(DependencyUpgrade::getUnit))
-            .map(DependencyUpgrade::toString)
-            .distinct()
+        return Stream.concat(upgrades.values().stream().map(DependencyUpgrade::toString), unparsedUpgrades.stream())
             .toList();
     }
 
@@ -134,15 +120,15 @@ class ChangelogProcessor {
 
         private final String unit;
 
-        private String lowestVersion;
+        private Version lowestVersion;
 
-        private String highestVersion;
+        private Version highestVersion;
 
         private final String url;
 
         private final String prNumber;
 
-        public DependencyUpgrade(String unit, String lowestVersion, String highestVersion, String url,
+        public DependencyUpgrade(String unit, Version lowestVersion, Version highestVersion, String url,
                 String prNumber) {
             this.unit = unit;
             this.lowestVersion = lowestVersion;
@@ -151,19 +137,15 @@ class ChangelogProcessor {
             this.prNumber = prNumber;
         }
 
-        public void updateVersions(String oldVersion, String newVersion) {
-            if (oldVersion.compareTo(lowestVersion) < 0) {
-                lowestVersion = oldVersion;
+        public void updateVersions(Version old, Version updated) {
+            if (old.compareTo(lowestVersion) < 0) {
+                lowestVersion = old;
             }
-            if (newVersion.compareTo(highestVersion) > 0) {
-                highestVersion = newVersion;
+            if (updated.compareTo(highestVersion) > 0) {
+                highestVersion = updated;
             }
         }
 
-        public String getUnit() {
-            return unit;
-        }
-
         @Override
         public String toString() {
             return String.format("- Bump %s from %s to %s [%s](%s)", unit, lowestVersion, highestVersion, prNumber,
@@ -24,7 +24,7 @@ import org.slf4j.LoggerFactory;
 
 class ChangelogSection {
 
-    private static final String CONTRIBUTORS_TEXT = "Thank you to all the contributors who worked on this release:";
+    static final String CONTRIBUTORS_TEXT = "Thank you to all the contributors who worked on this release:";
 
     private static final Pattern GITHUB_HANDLE = Pattern.compile("(@[a-zA-Z0-9](?:-?[a-zA-Z0-9])*[a-zA-Z0-9])");
 
@@ -32,7 +32,7 @@ class ChangelogSection {
 
     enum Section {
 
-        FEATURES(":star: New Features"), BUGS(":lady_beetle: Bug Fixes"),
+        NOTEWORTHY(":warning: Noteworthy"), FEATURES(":star: New Features"), BUGS(":lady_beetle: Bug Fixes"),
         DOCUMENTATION(":notebook_with_decorative_cover: Documentation"), UPGRADES(":hammer: Dependency Upgrades"),
         CONTRIBUTORS(":heart: Contributors");
 
@@ -53,7 +53,9 @@ class ChangelogSection {
 
     private final Section section;
 
-    private final Set<String> entries = new TreeSet<>();
+    private final SortedSet<String> entries = new TreeSet<>();
+
+    private final SortedSet<String> entriesView = Collections.unmodifiableSortedSet(entries);
 
     ChangelogSection(Section section) {
         this.section = section;
@@ -71,8 +73,9 @@ class ChangelogSection {
         return section.title;
     }
 
-    Set<String> getEntries() {
-        return new HashSet<>(entries);
+    // Sorted, read-only view over the entries
+    SortedSet<String> getEntries() {
+        return entriesView;
     }
 
     void clear() {
@@ -86,20 +89,20 @@ class ChangelogSection {
             return;
         }
         switch (otherSection) {
-            case FEATURES, BUGS, DOCUMENTATION, UPGRADES:
-                entries.addAll(other.getEntries());
+            case NOTEWORTHY, FEATURES, BUGS, DOCUMENTATION, UPGRADES:
+                entries.addAll(other.entries);
                 break;
             case CONTRIBUTORS:
                 Set<String> handles = new TreeSet<>();
                 addAuthors(handles, entries);
-                addAuthors(handles, other.getEntries());
+                addAuthors(handles, other.entries);
                 entries.clear();
-                String handlesText = joinHandles(new ArrayList<>(handles));
+                String handlesText = joinHandles(List.copyOf(handles));
                 entries.add(CONTRIBUTORS_TEXT + "\n\n" + handlesText);
         }
     }
 
-    private String joinHandles(List<String> handles) {
+    static String joinHandles(List<String> handles) {
         if (handles == null || handles.isEmpty()) {
             return "";
         }
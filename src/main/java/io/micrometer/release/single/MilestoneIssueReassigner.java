@@ -15,18 +15,24 @@
  */
 package io.micrometer.release.single;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.release.common.JsonCodec;
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.single.MilestoneMigrator.Milestone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 class MilestoneIssueReassigner {
 
     private static final Logger log = LoggerFactory.getLogger(MilestoneIssueReassigner.class);
 
+    // Number of aliased mutations sent in a single GraphQL request
+    static final int BATCH_SIZE = 50;
+
     private final ProcessRunner processRunner;
 
     private final String ghRepo;
@@ -51,10 +57,101 @@ class MilestoneIssueReassigner {
     }
 
     private void reassignIssues(List<Integer> issueNumbers, int milestoneNumber) {
+        for (int i = 0; i < issueNumbers.size(); i += BATCH_SIZE) {
+            List<Integer> batch = issueNumbers.subList(i, Math.min(i + BATCH_SIZE, issueNumbers.size()));
+            List<Integer> notReassigned = reassignBatch(batch, milestoneNumber);
+            if (!notReassigned.isEmpty()) {
+                log.warn("Batch update failed for issues {}, will retry them one by one", notReassigned);
+                notReassigned.forEach(issueNumber -> reassignIssue(issueNumber, milestoneNumber));
+            }
+        }
+    }
+
+    // Returns issue numbers whose update wasn't confirmed by GitHub
+    private List<Integer> reassignBatch(List<Integer> issueNumbers, int milestoneNumber) {
+        try {
+            JsonNode nodes = graphql(nodeIdsQuery(issueNumbers, milestoneNumber)).path("repository");
+            String milestoneId = nodes.path("milestone").path("id").asText(null);
+            if (milestoneId == null) {
+                log.warn("Milestone with number [{}] not found via GraphQL", milestoneNumber);
+                return issueNumbers;
+            }
+            String mutation = updateMilestoneMutation(issueNumbers, nodes, milestoneId);
+            if (mutation == null) {
+                return issueNumbers;
+            }
+            JsonNode updated = graphql(mutation);
+            List<Integer> notReassigned = new ArrayList<>();
+            for (Integer issueNumber : issueNumbers) {
+                if (updated.path(alias(issueNumber)).isMissingNode() || updated.path(alias(issueNumber)).isNull()) {
+                    notReassigned.add(issueNumber);
+                }
+            }
+            return notReassigned;
+        }
+        catch (IllegalStateException e) {
+            log.warn("Failed to reassign issues {} via GraphQL", issueNumbers, e);
+            return issueNumbers;
+        }
+    }
+
+    // query { repository(owner: "o", name: "r") { milestone(number: 1) { id }
+    // i2: issueOrPullRequest(number: 2) { __typename ... on Issue { id } ... on
+    // PullRequest { id } } } }
+    private String nodeIdsQuery(List<Integer> issueNumbers, int milestoneNumber) {
+        String[] ownerAndName = ghRepo.split("/");
+        StringBuilder query = new StringBuilder(
+                String.format("query { repository(owner: \"%s\", name: \"%s\") { milestone(number: %d) { id }",
+                        ownerAndName[0], ownerAndName[1], milestoneNumber));
+        for (Integer issueNumber : issueNumbers) {
+            query.append(' ')
+                .append(alias(issueNumber))
+                .append(": issueOrPullRequest(number: ")
+                .append(issueNumber)
+                .append(") { __typename ... on Issue { id } ... on PullRequest { id } }");
+        }
+        return query.append(" } }").toString();
+    }
+
+    // mutation { i2: updateIssue(input: {id: "I_1", milestoneId: "MI_1"}) {
+    // clientMutationId } i3: updatePullRequest(input: {pullRequestId: "PR_1",
+    // milestoneId: "MI_1"}) { clientMutationId } }
+    private String updateMilestoneMutation(List<Integer> issueNumbers, JsonNode nodes, String milestoneId) {
+        StringBuilder mutation = new StringBuilder("mutation {");
+        boolean anyIssueFound = false;
         for (Integer issueNumber : issueNumbers) {
-            processRunner.run("gh", "api", String.format("/repos/%s/issues/%d", ghRepo, issueNumber), "-X", "PATCH",
-                    "-f", String.format("milestone=%d", milestoneNumber));
+            JsonNode node = nodes.path(alias(issueNumber));
+            String id = node.path("id").asText(null);
+            if (id == null) {
+                // Not found - will be retried one by one
+                continue;
+            }
+            anyIssueFound = true;
+            boolean pullRequest = "PullRequest".equals(node.path("__typename").asText());
+            mutation.append(' ')
+                .append(alias(issueNumber))
+                .append(pullRequest ? ": updatePullRequest(input: {pullRequestId: \"" : ": updateIssue(input: {id: \"")
+                .append(id)
+                .append("\", milestoneId: \"")
+                .append(milestoneId)
+                .append("\"}) { clientMutationId }");
         }
+        return anyIssueFound ? mutation.append(" }").toString() : null;
+    }
+
+    // Aliases make the shape of the response dynamic, hence the tree
+    private JsonNode graphql(String query) {
+        List<String> lines = processRunner.runSilently("gh", "api", "graphql", "-f", "query=" + query);
+        return JsonCodec.readTree(String.join("\n", lines)).path("data");
+    }
+
+    private static String alias(int issueNumber) {
+        return "i" + issueNumber;
+    }
+
+    private void reassignIssue(int issueNumber, int milestoneNumber) {
+        processRunner.run("gh", "api", String.format("/repos/%s/issues/%d", ghRepo, issueNumber), "-X", "PATCH", "-f",
+                String.format("milestone=%d", milestoneNumber));
     }
 
     private MilestoneWithDeadline createMilestone(String version) {
@@ -68,8 +165,7 @@ class MilestoneIssueReassigner {
             throw new IllegalStateException("Could not create milestone " + version);
         }
 
-        String line = lines.get(0);
-        int milestoneId = Integer.parseInt(line.split("\"number\":")[1].split(",")[0].trim());
+        int milestoneId = JsonCodec.read(String.join("\n", lines), Milestone.class).number();
         return new MilestoneWithDeadline(milestoneId, version, dueDate);
     }
 
@@ -15,7 +15,11 @@
  */
 package io.micrometer.release.single;
 
+import io.micrometer.release.common.GithubPaginator;
+import io.micrometer.release.common.JsonCodec;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.common.Version;
+import io.micrometer.release.single.ChangelogEngine.Issue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,22 +31,32 @@ class MilestoneMigrator {
 
     private static final Logger log = LoggerFactory.getLogger(MilestoneMigrator.class);
 
-    private final ProcessRunner processRunner;
+    // Max page size supported by the GitHub API
+    private static final int PER_PAGE = 100;
 
     private final String ghOrgRepo;
 
     private final MilestoneIssueReassigner milestoneIssueReassigner;
 
+    private final GithubPaginator githubPaginator;
+
     MilestoneMigrator(ProcessRunner processRunner, MilestoneIssueReassigner milestoneIssueReassigner) {
-        this.processRunner = processRunner;
+        this(processRunner, milestoneIssueReassigner, new GithubPaginator());
+    }
+
+    // for tests
+    MilestoneMigrator(ProcessRunner processRunner, MilestoneIssueReassigner milestoneIssueReassigner,
+            GithubPaginator githubPaginator) {
         this.ghOrgRepo = processRunner.getOrgRepo();
         this.milestoneIssueReassigner = milestoneIssueReassigner;
+        this.githubPaginator = githubPaginator;
     }
 
-    MilestoneWithDeadline migrateMilestones(String refName) {
+    MilestoneMigration migrateMilestones(String refName) {
         log.info("Migrating milestones");
         // Find concrete milestone (e.g. 1.14.4)
-        String title = refName.startsWith("v") ? refName.substring(1) : refName;
+        Version version = Version.parse(refName);
+        String title = version.toString();
         Milestone concreteMilestone = findMilestone(title);
         if (concreteMilestone == null) {
             throw new IllegalStateException("Could not find milestone for <" + refName + ">");
@@ -51,8 +65,7 @@ class MilestoneMigrator {
                 concreteMilestone.title);
 
         // Find generic milestone (e.g. 1.14.x)
-        String genericRef = refName.substring(0, refName.lastIndexOf('.')) + ".x";
-        String genericTitle = genericRef.startsWith("v") ? genericRef.substring(1) : genericRef;
+        String genericTitle = version.majorMinor() + ".x";
         Milestone genericMilestone = findMilestone(genericTitle);
         if (genericMilestone == null) {
             throw new IllegalStateException("Could not find generic milestone <" + genericTitle + ">");
@@ -63,63 +76,49 @@ class MilestoneMigrator {
         return reassignIssues(refName, genericMilestone, concreteMilestone);
     }
 
-    private MilestoneWithDeadline reassignIssues(String refName, Milestone genericMilestone,
+    private MilestoneMigration reassignIssues(String refName, Milestone genericMilestone,
             Milestone concreteMilestone) {
-        // Get all issues from generic milestone
-        List<Issue> concreteIssues = getIssuesForMilestone(concreteMilestone.number());
-        List<Issue> genericIssues = getIssuesForMilestone(genericMilestone.number());
-
-        // Split issues by state
-        List<Integer> closedIssues = new ArrayList<>();
-        List<Integer> openIssues = new ArrayList<>();
+        // Read before reassigning, so that the released issues don't depend on the index
+        // of GitHub catching up with the moves
+        List<Issue> concreteClosedIssues = getIssuesForMilestone(concreteMilestone.number(), "closed");
         // Move closed issues in generic to next release
-        for (Issue issue : genericIssues) {
-            if ("closed".equals(issue.state())) {
-                closedIssues.add(issue.number());
-            }
-        }
+        List<Issue> genericClosedIssues = getIssuesForMilestone(genericMilestone.number(), "closed");
+        List<Integer> closedIssues = genericClosedIssues.stream().map(Issue::number).toList();
         // Move open issues in current to next release
-        for (Issue issue : concreteIssues) {
-            if ("open".equals(issue.state())) {
-                openIssues.add(issue.number());
-            }
-        }
-
-        return milestoneIssueReassigner.reassignIssues(concreteMilestone, refName, closedIssues, openIssues);
+        List<Integer> openIssues = getIssuesForMilestone(concreteMilestone.number(), "open")
+            .stream()
+            .map(Issue::number)
+            .toList();
+        log.info("Found [{}] closed issues in generic milestone and [{}] open issues in concrete milestone",
+                closedIssues.size(), openIssues.size());
+
+        MilestoneWithDeadline newMilestone = milestoneIssueReassigner.reassignIssues(concreteMilestone, refName,
+                closedIssues, openIssues);
+        List<Issue> releasedIssues = new ArrayList<>(concreteClosedIssues);
+        releasedIssues.addAll(genericClosedIssues);
+        return new MilestoneMigration(newMilestone, releasedIssues);
     }
 
     Milestone findMilestone(String title) {
-        List<String> lines = processRunner.run("gh", "api", "--paginate", "/repos/" + ghOrgRepo + "/milestones", "--jq",
-                String.format(".[] | select(.title == \"%s\") | {number: .number, title: .title}", title));
-        if (lines.isEmpty()) {
-            throw new IllegalStateException("No response from gh cli for version <" + title + ">");
-        }
-        String line = lines.get(0);
-        if (line == null || line.isBlank()) {
-            return null;
-        }
-        // Parse JSON manually since it's a simple structure
-        int number = Integer.parseInt(line.split("\"number\":")[1].split(",")[0].trim());
-        String milestoneTitle = line.split("\"title\":\"")[1].split("\"")[0];
-        return new Milestone(number, milestoneTitle);
+        List<Milestone> milestones = new ArrayList<>();
+        githubPaginator.fetchPages("/repos/" + ghOrgRepo + "/milestones?per_page=" + PER_PAGE,
+                page -> milestones.addAll(JsonCodec.readArray(page, Milestone.class)));
+        return milestones.stream().filter(milestone -> title.equals(milestone.title())).findFirst().orElse(null);
     }
 
-    private List<Issue> getIssuesForMilestone(int milestoneNumber) {
-        List<String> lines = processRunner.run("gh", "api", "--paginate",
-                String.format("/repos/%s/issues?milestone=%d&state=all", ghOrgRepo, milestoneNumber), "--jq",
-                ".[] | {number: .number, state: .state}");
+    private List<Issue> getIssuesForMilestone(int milestoneNumber, String state) {
+        String issuesUrl = String.format("/repos/%s/issues?milestone=%d&state=%s&per_page=%d", ghOrgRepo,
+                milestoneNumber, state, PER_PAGE);
         List<Issue> issues = new ArrayList<>();
-        for (String line : lines) {
-            if (!line.isBlank()) {
-                int number = Integer.parseInt(line.split("\"number\":")[1].split(",")[0].trim());
-                String state = line.split("\"state\":\"")[1].split("\"")[0];
-                issues.add(new Issue(number, state));
-            }
-        }
+        githubPaginator.fetchPages(issuesUrl, page -> issues.addAll(JsonCodec.readArray(page, Issue.class)));
         return issues;
     }
 
-    record Issue(int number, String state) {
+    /**
+     * @param newMilestone milestone of the next release
+     * @param releasedIssues closed issues and pull requests that went into the release
+     */
+    record MilestoneMigration(MilestoneWithDeadline newMilestone, List<Issue> releasedIssues) {
 
     }
 
@@ -17,6 +17,7 @@ package io.micrometer.release.single;
 
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.single.MilestoneMigrator.Milestone;
+import io.micrometer.release.single.MilestoneMigrator.MilestoneMigration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +43,7 @@ class MilestoneUpdater {
         this.milestoneMigrator = new MilestoneMigrator(this.processRunner, new MilestoneIssueReassigner(processRunner));
     }
 
-    MilestoneWithDeadline updateMilestones(String githubRefName) {
+    MilestoneMigration updateMilestones(String githubRefName) {
         return this.milestoneMigrator.migrateMilestones(githubRefName);
     }
 
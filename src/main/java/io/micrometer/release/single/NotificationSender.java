@@ -15,22 +15,34 @@
  */
 package io.micrometer.release.single;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.release.common.Input;
+import io.micrometer.release.common.JsonCodec;
+import io.micrometer.release.common.ReleaseHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.text.BreakIterator;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 class NotificationSender {
 
@@ -42,13 +54,67 @@ class NotificationSender {
         this.notifiers = List.of(googleChat(), blueSky());
     }
 
-    void sendNotifications(String repoName, String refName, MilestoneWithDeadline newMilestoneId) {
-        notifiers.forEach(notifier -> notifier.sendNotification(repoName, refName, newMilestoneId));
+    /**
+     * Sends all notifications concurrently. A failing or slow notifier doesn't prevent
+     * the others from sending theirs.
+     * @return outcome of every notifier
+     */
+    List<NotificationResult> sendNotifications(String repoName, String refName, MilestoneWithDeadline newMilestoneId) {
+        return sendToAll(notifier -> notifier.sendNotification(repoName, refName, newMilestoneId));
+    }
+
+    /**
+     * Sends a single notification per notifier that covers all the given releases.
+     * @param releases releases of a train, in the order they should be listed
+     * @return outcome of every notifier
+     */
+    List<NotificationResult> sendTrainNotifications(List<Release> releases) {
+        return sendToAll(notifier -> notifier.sendTrainNotification(releases));
+    }
+
+    static void throwIfAnyFailed(List<NotificationResult> results) {
+        List<NotificationResult> failed = results.stream().filter(result -> result.error() != null).toList();
+        if (!failed.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException("Failed to send notifications "
+                    + failed.stream().map(result -> result.notifier() + " (" + result.status() + ")").toList());
+            failed.forEach(result -> exception.addSuppressed(result.error()));
+            throw exception;
+        }
+    }
+
+    private List<NotificationResult> sendToAll(Function<Notifier, CompletableFuture<Boolean>> notification) {
+        Map<Notifier, CompletableFuture<Boolean>> notifications = new LinkedHashMap<>();
+        for (Notifier notifier : notifiers) {
+            notifications.put(notifier, send(notifier, notification));
+        }
+        List<NotificationResult> results = new ArrayList<>();
+        notifications.forEach((notifier, sent) -> results
+            .add(sent.handle((isSent, throwable) -> NotificationResult.of(notifier.name(), isSent, throwable))
+                .join()));
+        results.forEach(result -> {
+            if (result.error() != null) {
+                log.error("Notification [{}] {}", result.notifier(), result.status(), result.error());
+            }
+            else {
+                log.info("Notification [{}] {}", result.notifier(), result.status());
+            }
+        });
+        return results;
+    }
+
+    private static CompletableFuture<Boolean> send(Notifier notifier,
+            Function<Notifier, CompletableFuture<Boolean>> notification) {
+        try {
+            return notification.apply(notifier).orTimeout(notifier.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     // for tests
     BlueSkyNotifier blueSky() {
-        return new BlueSkyNotifier(new ObjectMapper());
+        return new BlueSkyNotifier();
     }
 
     // for tests
@@ -58,67 +124,168 @@ class NotificationSender {
 
     interface Notifier {
 
-        void sendNotification(String repoName, String refName, MilestoneWithDeadline newMilestoneId);
+        Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+        String name();
+
+        /**
+         * @return completes with {@code true} when the notification got sent and with
+         * {@code false} when the notifier isn't configured
+         */
+        CompletableFuture<Boolean> sendNotification(String repoName, String refName,
+                MilestoneWithDeadline newMilestoneId);
+
+        /**
+         * @return completes with {@code true} when the notification got sent and with
+         * {@code false} when the notifier isn't configured
+         */
+        CompletableFuture<Boolean> sendTrainNotification(List<Release> releases);
+
+        default Duration timeout() {
+            return DEFAULT_TIMEOUT;
+        }
+
+    }
+
+    enum Status {
+
+        SENT, SKIPPED, FAILED, TIMED_OUT
+
+    }
+
+    record Release(String repoName, String refName, MilestoneWithDeadline newMilestone) {
+
+        String version() {
+            return refName.startsWith("v") ? refName.substring(1) : refName;
+        }
+
+    }
+
+    record NotificationResult(String notifier, Status status, Throwable error) {
+
+        static NotificationResult of(String notifier, Boolean sent, Throwable throwable) {
+            if (throwable == null) {
+                return new NotificationResult(notifier, Boolean.TRUE.equals(sent) ? Status.SENT : Status.SKIPPED,
+                        null);
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            Status status = cause instanceof TimeoutException ? Status.TIMED_OUT : Status.FAILED;
+            return new NotificationResult(notifier, status, cause);
+        }
 
     }
 
     static class GoogleChatNotifier implements Notifier {
 
+        private final HttpClient httpClient;
+
         private final String googleChatNotificationUrl;
 
-        GoogleChatNotifier(String googleChatNotificationUrl) {
+        GoogleChatNotifier(HttpClient httpClient, String googleChatNotificationUrl) {
+            this.httpClient = httpClient;
             this.googleChatNotificationUrl = googleChatNotificationUrl;
         }
 
         GoogleChatNotifier() {
-            this.googleChatNotificationUrl = Input.getGChatWebhookUrl();
+            this(ReleaseHttpClient.shared(), Input.getGChatWebhookUrl());
+        }
+
+        @Override
+        public String name() {
+            return "Google Chat";
         }
 
         @Override
-        public void sendNotification(String repoName, String refName, MilestoneWithDeadline newMilestone) {
+        public CompletableFuture<Boolean> sendNotification(String repoName, String refName,
+                MilestoneWithDeadline newMilestone) {
             if (googleChatNotificationUrl == null || googleChatNotificationUrl.isBlank()) {
                 log.warn("Won't send notification to GChat - webhook url is missing");
-                return;
+                return CompletableFuture.completedFuture(false);
             }
             log.info("Sending notification to GChat");
             String version = refName.startsWith("v") ? refName.substring(1) : refName;
-            String name = repoName.startsWith("micrometer") ? repoName : "micrometer-" + repoName;
-            sendAnnouncingNotificationToReleaseChannel(name, version);
-            sendPlanningNotificationToReleaseChannel(name, ReleaseVersionCalculator.calculateNextVersion(version),
-                    newMilestone);
+            String name = chatName(repoName);
+            String nextVersion = ReleaseVersionCalculator.calculateNextVersion(version);
+            // Planning comes after announcing in the channel
+            return sendAnnouncingNotificationToReleaseChannel(name, version)
+                .thenCompose(announced -> sendPlanningNotificationToReleaseChannel(name, nextVersion, newMilestone))
+                .thenApply(planned -> true);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> sendTrainNotification(List<Release> releases) {
+            if (googleChatNotificationUrl == null || googleChatNotificationUrl.isBlank()) {
+                log.warn("Won't send train notification to GChat - webhook url is missing");
+                return CompletableFuture.completedFuture(false);
+            }
+            log.info("Sending train notification to GChat for [{}] releases", releases.size());
+            // The bot reads one command per message, the whole train goes to one thread and
+            // the messages are sent one after another to keep their order
+            String threadUrl = threadUrl("release-train-" + Instant.now().toEpochMilli());
+            CompletableFuture<Void> sent = CompletableFuture.completedFuture(null);
+            for (Release release : releases) {
+                String name = chatName(release.repoName());
+                sent = sent.thenCompose(
+                        previous -> notifyGoogleChat(threadUrl, textPayload(announcingText(name, release.version()))));
+                if (release.newMilestone() != null) {
+                    String nextVersion = ReleaseVersionCalculator.calculateNextVersion(release.version());
+                    sent = sent.thenCompose(previous -> notifyGoogleChat(threadUrl,
+                            textPayload(planningText(name, nextVersion, release.newMilestone()))));
+                }
+            }
+            return sent.thenApply(done -> true);
+        }
+
+        private static String chatName(String repoName) {
+            return repoName.startsWith("micrometer") ? repoName : "micrometer-" + repoName;
+        }
+
+        private static String announcingText(String name, String version) {
+            return "%s-announcing %s".formatted(name, version);
+        }
+
+        private static String planningText(String name, String version, MilestoneWithDeadline milestone) {
+            String formattedDate = milestone.deadline().format(DateTimeFormatter.ofPattern("MMMM d"));
+            return "%s-planning %s on %s".formatted(name, version, formattedDate);
+        }
+
+        private static String textPayload(String text) {
+            return JsonCodec.write(Map.of("text", text));
         }
 
-        private void sendAnnouncingNotificationToReleaseChannel(String name, String version) {
-            String payload = String.format("{\"text\": \"%s-announcing %s\"}", name, version);
-            notifyGoogleChat(payload);
+        private String threadUrl(String threadKey) {
+            String separator = googleChatNotificationUrl.contains("?") ? "&" : "?";
+            return googleChatNotificationUrl + separator + "threadKey=" + threadKey
+                    + "&messageReplyOption=REPLY_MESSAGE_FALLBACK_TO_NEW_THREAD";
         }
 
-        private void sendPlanningNotificationToReleaseChannel(String name, String version,
+        private CompletableFuture<Void> sendAnnouncingNotificationToReleaseChannel(String name, String version) {
+            String payload = String.format("{\"text\": \"%s\"}", announcingText(name, version));
+            return notifyGoogleChat(googleChatNotificationUrl, payload);
+        }
+
+        private CompletableFuture<Void> sendPlanningNotificationToReleaseChannel(String name, String version,
                 MilestoneWithDeadline milestone) {
             if (milestone == null) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
-            String formattedDate = milestone.deadline().format(DateTimeFormatter.ofPattern("MMMM d"));
-            String payload = String.format("{\"text\": \"%s-planning %s on %s\"}", name, version, formattedDate);
-            notifyGoogleChat(payload);
+            String payload = String.format("{\"text\": \"%s\"}", planningText(name, version, milestone));
+            return notifyGoogleChat(googleChatNotificationUrl, payload);
         }
 
-        private void notifyGoogleChat(String payload) {
+        private CompletableFuture<Void> notifyGoogleChat(String url, String payload) {
             // Google Chat Notification
             HttpRequest chatRequest = HttpRequest.newBuilder()
-                .uri(URI.create(googleChatNotificationUrl))
+                .uri(URI.create(url))
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(payload))
                 .build();
-            try (HttpClient httpClient = HttpClient.newHttpClient()) {
-                HttpResponse<String> send = httpClient.send(chatRequest, BodyHandlers.ofString());
+            return httpClient.sendAsync(chatRequest, BodyHandlers.ofString()).thenAccept(send -> {
                 if (send.statusCode() >= 400) {
                     throw new IllegalStateException("Unexpected response code: " + send.statusCode());
                 }
-            }
-            catch (IOException | InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            });
         }
 
     }
@@ -127,7 +294,11 @@ class NotificationSender {
 
         private static final Logger log = LoggerFactory.getLogger(BlueSkyNotifier.class);
 
-        private final ObjectMapper objectMapper;
+        // uri root and identifier -> session. Shared by all the posts of a run, since
+        // Bluesky rate limits createSession
+        private static final Map<String, CompletableFuture<Session>> SESSIONS = new ConcurrentHashMap<>();
+
+        private final HttpClient httpClient;
 
         private final String uriRoot;
 
@@ -135,58 +306,162 @@ class NotificationSender {
 
         private final String password;
 
-        BlueSkyNotifier(ObjectMapper objectMapper, String uriRoot, String identifier, String password) {
-            this.objectMapper = objectMapper;
+        BlueSkyNotifier(HttpClient httpClient, String uriRoot, String identifier, String password) {
+            this.httpClient = httpClient;
             this.uriRoot = uriRoot;
             this.identifier = identifier;
             this.password = password;
         }
 
-        BlueSkyNotifier(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
-            this.uriRoot = "https://bsky.social";
-            this.identifier = Input.getBlueSkyHandle();
-            this.password = Input.getBlueSkyPassword();
+        BlueSkyNotifier() {
+            this(ReleaseHttpClient.shared(), "https://bsky.social", Input.getBlueSkyHandle(),
+                    Input.getBlueSkyPassword());
+        }
+
+        @Override
+        public String name() {
+            return "Bluesky";
         }
 
         @Override
-        public void sendNotification(String repoName, String refName, MilestoneWithDeadline newMilestoneId) {
+        public CompletableFuture<Boolean> sendNotification(String repoName, String refName,
+                MilestoneWithDeadline newMilestoneId) {
             if (password == null || password.isBlank()) {
                 log.warn("Won't send notification to Bluesky - no password provided");
-                return;
+                return CompletableFuture.completedFuture(false);
             }
 
-            String token = getToken();
+            return post(createPostJson(repoName, refName)).thenApply(posted -> true);
+        }
 
-            createPost(token, createPostJson(repoName, refName));
+        @Override
+        public CompletableFuture<Boolean> sendTrainNotification(List<Release> releases) {
+            if (password == null || password.isBlank()) {
+                log.warn("Won't send train notification to Bluesky - no password provided");
+                return CompletableFuture.completedFuture(false);
+            }
+            List<TrainPost> posts = TrainPost.of(releases);
+            log.info("Posting [{}] releases to Bluesky in a thread of [{}] posts", releases.size(), posts.size());
+            // Replies have to point at the posts created before them
+            CompletableFuture<List<PostRef>> thread = CompletableFuture.completedFuture(new ArrayList<>());
+            for (TrainPost trainPost : posts) {
+                thread = thread.thenCompose(created -> {
+                    PostRef root = created.isEmpty() ? null : created.get(0);
+                    PostRef parent = created.isEmpty() ? null : created.get(created.size() - 1);
+                    return post(trainPost.toJson(root, parent)).thenApply(postRef -> {
+                        created.add(postRef);
+                        return created;
+                    });
+                });
+            }
+            return thread.thenApply(created -> true);
         }
 
-        private String getToken() {
+        private CompletableFuture<PostRef> post(String postJson) {
+            return session().thenCompose(session -> createPost(session.accessJwt(), postJson).thenCompose(posted -> {
+                if (posted != null) {
+                    return CompletableFuture.completedFuture(posted);
+                }
+                log.info("Bluesky access token got rejected as expired, will refresh the session and retry");
+                return refresh(session).thenCompose(refreshed -> createPost(refreshed.accessJwt(), postJson))
+                    .thenApply(retried -> {
+                        if (retried == null) {
+                            throw new IllegalStateException("Bluesky rejected a freshly refreshed access token");
+                        }
+                        return retried;
+                    });
+            }));
+        }
+
+        // for tests
+        static void clearSessions() {
+            SESSIONS.clear();
+        }
+
+        private String sessionKey() {
+            return uriRoot + "|" + identifier;
+        }
+
+        private CompletableFuture<Session> session() {
+            String key = sessionKey();
+            CompletableFuture<Session> cached = SESSIONS.computeIfAbsent(key, k -> createSession());
+            return cached.handle((session, throwable) -> {
+                if (throwable != null) {
+                    // Let the next post try to log in again
+                    SESSIONS.remove(key, cached);
+                    return CompletableFuture.<Session>failedFuture(throwable);
+                }
+                return session.expiresSoon() ? refresh(session) : CompletableFuture.completedFuture(session);
+            }).thenCompose(future -> future);
+        }
+
+        // Only one refresh per stale session, concurrent posts wait for it
+        private CompletableFuture<Session> refresh(Session stale) {
+            String key = sessionKey();
+            CompletableFuture<Session> refreshed = new CompletableFuture<>();
+            CompletableFuture<Session> current = SESSIONS.compute(key, (k, existing) -> {
+                if (existing != null && !(existing.isDone() && !existing.isCompletedExceptionally()
+                        && existing.join() == stale)) {
+                    return existing;
+                }
+                return refreshed;
+            });
+            if (current != refreshed) {
+                return current;
+            }
+            refreshSession(stale).exceptionallyCompose(throwable -> {
+                log.warn("Failed to refresh the Bluesky session, will create a new one", throwable);
+                return createSession();
+            }).whenComplete((session, throwable) -> {
+                if (throwable != null) {
+                    SESSIONS.remove(key, refreshed);
+                    refreshed.completeExceptionally(throwable);
+                }
+                else {
+                    refreshed.complete(session);
+                }
+            });
+            return refreshed;
+        }
+
+        private CompletableFuture<Session> createSession() {
+            log.info("Creating a Bluesky session");
             HttpRequest createSessionRequest = HttpRequest.newBuilder()
                 .uri(URI.create(uriRoot + "/xrpc/com.atproto.server.createSession"))
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers
                     .ofString("{\"identifier\":\"" + identifier + "\",\"password\":\"" + password + "\"}"))
                 .build();
+            return sendSessionRequest(createSessionRequest);
+        }
 
-            try (HttpClient httpClient = HttpClient.newHttpClient()) {
-                HttpResponse<String> createSessionResponse = httpClient.send(createSessionRequest,
-                        HttpResponse.BodyHandlers.ofString());
-                if (createSessionResponse.statusCode() >= 400) {
-                    throw new IllegalStateException("Unexpected response code: " + createSessionResponse.statusCode());
+        private CompletableFuture<Session> refreshSession(Session session) {
+            log.info("Refreshing the Bluesky session");
+            HttpRequest refreshSessionRequest = HttpRequest.newBuilder()
+                .uri(URI.create(uriRoot + "/xrpc/com.atproto.server.refreshSession"))
+                .header("Authorization", "Bearer " + session.refreshJwt())
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+            return sendSessionRequest(refreshSessionRequest);
+        }
+
+        private CompletableFuture<Session> sendSessionRequest(HttpRequest request) {
+            return httpClient.sendAsync(request, BodyHandlers.ofString()).thenApply(sessionResponse -> {
+                if (sessionResponse.statusCode() >= 400) {
+                    throw new IllegalStateException("Unexpected response code: " + sessionResponse.statusCode());
                 }
-                JsonNode jsonNode = objectMapper.readTree(createSessionResponse.body());
-                if (!jsonNode.has("accessJwt")) {
+                Session session = JsonCodec.read(sessionResponse.body(), Session.class);
+                if (session.accessJwt() == null) {
                     throw new IllegalStateException("Missing JWT in response");
                 }
-                return jsonNode.get("accessJwt").asText();
-            }
-            catch (IOException | InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+                return session;
+            });
         }
 
-        private void createPost(String token, String postJson) {
+        /**
+         * @return {@code null} when the access token is expired
+         */
+        private CompletableFuture<PostRef> createPost(String token, String postJson) {
             String requestBody = """
                     {
                       "repo":"%s",
@@ -200,23 +475,31 @@ class NotificationSender {
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
 
-            try (HttpClient httpClient = HttpClient.newHttpClient()) {
-                HttpResponse<String> createRecordResponse = httpClient.send(createRecordRequest,
-                        BodyHandlers.ofString());
-                if (createRecordResponse.statusCode() >= 400) {
-                    log.error("Unexpected response code: {}\nResponse: {}\nRequest: {}",
-                            createRecordResponse.statusCode(), createRecordResponse.body(), requestBody);
-                    throw new IllegalStateException("Unexpected response code: " + createRecordResponse.statusCode());
-                }
-                else {
-                    log.debug("Created record: Request: {}, Response: {}", requestBody, createRecordResponse.body());
-                }
-                String postRevision = objectMapper.readTree(createRecordResponse.body()).at("/commit/rev").asText();
-                log.info("Bluesky post created: https://bsky.app/profile/{}/post/{}", identifier, postRevision);
-            }
-            catch (IOException | InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            return httpClient.sendAsync(createRecordRequest, BodyHandlers.ofString())
+                .thenApply(createRecordResponse -> {
+                    if (isExpiredToken(createRecordResponse.statusCode(), createRecordResponse.body())) {
+                        return null;
+                    }
+                    if (createRecordResponse.statusCode() >= 400) {
+                        log.error("Unexpected response code: {}\nResponse: {}\nRequest: {}",
+                                createRecordResponse.statusCode(), createRecordResponse.body(), requestBody);
+                        throw new IllegalStateException(
+                                "Unexpected response code: " + createRecordResponse.statusCode());
+                    }
+                    else {
+                        log.debug("Created record: Request: {}, Response: {}", requestBody,
+                                createRecordResponse.body());
+                    }
+                    String postRevision = JsonCodec.readText(createRecordResponse.body(), "commit", "rev");
+                    log.info("Bluesky post created: https://bsky.app/profile/{}/post/{}", identifier, postRevision);
+                    return JsonCodec.read(createRecordResponse.body(), PostRef.class);
+                });
+        }
+
+        // {"error":"ExpiredToken","message":"Token has expired"}
+        private static boolean isExpiredToken(int statusCode, String body) {
+            return (statusCode == 400 || statusCode == 401)
+                    && "ExpiredToken".equals(JsonCodec.readText(body, "error"));
         }
 
         private static String createPostJson(String projectName, String versionRef) {
@@ -269,6 +552,151 @@ class NotificationSender {
             return postBytes.length - newLineLiteralCount * (newLineLiteralBytes - newLineBytes);
         }
 
+        // Reference to a created post, needed to reply to it
+        record PostRef(String uri, String cid) {
+
+            Map<String, String> toMap() {
+                Map<String, String> ref = new LinkedHashMap<>();
+                ref.put("uri", uri);
+                ref.put("cid", cid);
+                return ref;
+            }
+
+        }
+
+        /**
+         * Post of a train thread. Lists the released versions per project, every version
+         * links to its changelog.
+         */
+        record TrainPost(String text, List<Map<String, Object>> facets) {
+
+            // Bluesky limits posts to 300 graphemes
+            static final int MAX_LENGTH = 300;
+
+            private static final String HEADER = "New Micrometer releases are out!";
+
+            static List<TrainPost> of(List<Release> releases) {
+                Map<String, List<Release>> projects = new LinkedHashMap<>();
+                releases.forEach(release -> projects.computeIfAbsent(release.repoName(), project -> new ArrayList<>())
+                    .add(release));
+                List<TrainPost> posts = new ArrayList<>();
+                Builder post = new Builder(HEADER);
+                for (Map.Entry<String, List<Release>> project : projects.entrySet()) {
+                    // A project with too many versions continues in the next post
+                    boolean projectStarted = false;
+                    for (Release release : project.getValue()) {
+                        if (!post.fits(project.getKey(), release, projectStarted)) {
+                            posts.add(post.build());
+                            post = new Builder(HEADER + " (continued)");
+                            projectStarted = false;
+                        }
+                        post.version(project.getKey(), release, projectStarted);
+                        projectStarted = true;
+                    }
+                }
+                posts.add(post.build());
+                return posts;
+            }
+
+            String toJson(PostRef root, PostRef parent) {
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("$type", "app.bsky.feed.post");
+                record.put("text", text);
+                record.put("createdAt", ZonedDateTime.now().format(DateTimeFormatter.ISO_INSTANT));
+                record.put("facets", facets);
+                if (root != null) {
+                    record.put("reply", Map.of("root", root.toMap(), "parent", parent.toMap()));
+                }
+                return JsonCodec.write(record);
+            }
+
+            private static final class Builder {
+
+                private final StringBuilder text;
+
+                private final List<Map<String, Object>> facets = new ArrayList<>();
+
+                private Builder(String header) {
+                    this.text = new StringBuilder(header).append("\n");
+                }
+
+                // Facets index UTF-8 bytes
+                private int byteLength() {
+                    return text.toString().getBytes(StandardCharsets.UTF_8).length;
+                }
+
+                // The first version of a post always fits, so that every post makes progress
+                private boolean fits(String projectName, Release release, boolean projectStarted) {
+                    String next = separator(projectName, projectStarted) + release.version();
+                    return facets.isEmpty() || graphemes(text + next) <= MAX_LENGTH;
+                }
+
+                private void version(String projectName, Release release, boolean projectStarted) {
+                    text.append(separator(projectName, projectStarted));
+                    int byteStart = byteLength();
+                    text.append(release.version());
+                    facets.add(linkFacet(byteStart, byteLength(), getChangelogUrl(projectName, release.refName())));
+                }
+
+                private static String separator(String projectName, boolean projectStarted) {
+                    return projectStarted ? ", " : "\n" + projectName + " ";
+                }
+
+                // What a reader sees as a single character, e.g. an emoji made of several
+                // code points
+                private static int graphemes(String text) {
+                    BreakIterator graphemes = BreakIterator.getCharacterInstance(Locale.ROOT);
+                    graphemes.setText(text);
+                    int count = 0;
+                    while (graphemes.next() != BreakIterator.DONE) {
+                        count++;
+                    }
+                    return count;
+                }
+
+                private static Map<String, Object> linkFacet(int byteStart, int byteEnd, String uri) {
+                    Map<String, Object> facet = new LinkedHashMap<>();
+                    facet.put("index", Map.of("byteStart", byteStart, "byteEnd", byteEnd));
+                    facet.put("features", List.of(Map.of("$type", "app.bsky.richtext.facet#link", "uri", uri)));
+                    return facet;
+                }
+
+                private TrainPost build() {
+                    return new TrainPost(text.toString(), List.copyOf(facets));
+                }
+
+            }
+
+        }
+
+        record Session(String accessJwt, String refreshJwt) {
+
+            // Access tokens are short-lived, refresh a bit before they expire
+            private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(1);
+
+            boolean expiresSoon() {
+                Instant expiresAt = expiresAt();
+                return expiresAt != null && Instant.now().plus(EXPIRY_MARGIN).isAfter(expiresAt);
+            }
+
+            // The exp claim of the JWT payload, null if it can't be read
+            private Instant expiresAt() {
+                String[] parts = accessJwt.split("\\.");
+                if (parts.length < 2) {
+                    return null;
+                }
+                try {
+                    String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+                    String exp = JsonCodec.readText(payload, "exp");
+                    return exp != null ? Instant.ofEpochSecond(Long.parseLong(exp)) : null;
+                }
+                catch (IllegalArgumentException | IllegalStateException e) {
+                    return null;
+                }
+            }
+
+        }
+
     }
 
 }
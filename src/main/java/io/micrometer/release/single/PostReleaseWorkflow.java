@@ -15,17 +15,33 @@
  */
 package io.micrometer.release.single;
 
+import io.micrometer.release.common.Dependency;
 import io.micrometer.release.common.Input;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.common.TaskGraph;
+import io.micrometer.release.common.TaskGraph.Step;
+import io.micrometer.release.single.MilestoneMigrator.MilestoneMigration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class PostReleaseWorkflow {
 
+    private static final Logger log = LoggerFactory.getLogger(PostReleaseWorkflow.class);
+
     private final ChangelogGeneratorDownloader changelogGeneratorDownloader;
 
     private final ChangelogGenerator changelogGenerator;
 
+    private final ChangelogEngine changelogEngine;
+
     private final ChangelogFetcher changelogFetcher;
 
     private final ChangelogProcessor changelogProcessor;
@@ -38,58 +54,146 @@ public class PostReleaseWorkflow {
 
     private final ProcessRunner processRunner;
 
+    private final Path debugDirectory;
+
     PostReleaseWorkflow(ChangelogGeneratorDownloader changelogGeneratorDownloader,
             ChangelogGenerator changelogGenerator, ChangelogFetcher changelogFetcher,
             ChangelogProcessor changelogProcessor, ReleaseNotesUpdater releaseNotesUpdater,
             MilestoneUpdater milestoneUpdater, NotificationSender notificationSender, ProcessRunner processRunner) {
+        this(changelogGeneratorDownloader, changelogGenerator, null, changelogFetcher, changelogProcessor,
+                releaseNotesUpdater, milestoneUpdater, notificationSender, processRunner);
+    }
+
+    // changelogEngine is null when the Spring GitHub Changelog Generator should be used
+    PostReleaseWorkflow(ChangelogGeneratorDownloader changelogGeneratorDownloader,
+            ChangelogGenerator changelogGenerator, ChangelogEngine changelogEngine, ChangelogFetcher changelogFetcher,
+            ChangelogProcessor changelogProcessor, ReleaseNotesUpdater releaseNotesUpdater,
+            MilestoneUpdater milestoneUpdater, NotificationSender notificationSender, ProcessRunner processRunner) {
         this.changelogGeneratorDownloader = changelogGeneratorDownloader;
         this.changelogGenerator = changelogGenerator;
+        this.changelogEngine = changelogEngine;
         this.changelogFetcher = changelogFetcher;
         this.changelogProcessor = changelogProcessor;
         this.releaseNotesUpdater = releaseNotesUpdater;
         this.milestoneUpdater = milestoneUpdater;
         this.notificationSender = notificationSender;
         this.processRunner = processRunner;
+        String debugDirectory = Input.getChangelogDebugDir();
+        this.debugDirectory = debugDirectory == null || debugDirectory.isBlank() ? null : Path.of(debugDirectory);
     }
 
     public PostReleaseWorkflow(ProcessRunner processRunner) {
         this(new ChangelogGeneratorDownloader(), new ChangelogGenerator(processRunner),
+                ChangelogEngine.NATIVE_ENGINE.equalsIgnoreCase(Input.getChangelogEngine()) ? new ChangelogEngine()
+                        : null,
                 new ChangelogFetcher(processRunner), new ChangelogProcessor(processRunner),
                 new ReleaseNotesUpdater(processRunner), new MilestoneUpdater(processRunner), new NotificationSender(),
                 processRunner);
     }
 
+    /**
+     * Returns the same workflow but running its commands (e.g. Gradle) in the given
+     * directory. Only the collaborators that work with the checked out project are
+     * replaced, all the others are shared with this workflow.
+     * @param directory directory of the project checked out at the released tag
+     * @return workflow for the directory
+     */
+    public PostReleaseWorkflow inDirectory(File directory) {
+        ProcessRunner directoryProcessRunner = new ProcessRunner(processRunner, directory);
+        return new PostReleaseWorkflow(changelogGeneratorDownloader, changelogGenerator, changelogEngine,
+                changelogFetcher, new ChangelogProcessor(directoryProcessRunner), releaseNotesUpdater,
+                milestoneUpdater, notificationSender, directoryProcessRunner);
+    }
+
     // micrometer-metrics/tracing
     // v1.3.1
     // v1.2.5 (optional)
     public void run(String githubRefName, String previousRefName) {
+        run(githubRefName, previousRefName, CompletableFuture.completedFuture(null), new CompletableFuture<>(), null);
+    }
+
+    /**
+     * Runs the workflow as part of a train where versions are processed concurrently.
+     * Release notes of a version include the ones of the previous version, so only
+     * fetching them waits for the previous version, all the other steps don't.
+     * @param githubRefName released tag
+     * @param previousRefName previous tag in the train (optional)
+     * @param previousReleaseNotes completes when the release notes of previousRefName
+     * are updated
+     * @param releaseNotes completed by this workflow when the release notes of
+     * githubRefName are updated (or exceptionally when the workflow fails)
+     * @param trainNotifications collects the notifications instead of sending them right
+     * away (optional)
+     */
+    public void run(String githubRefName, String previousRefName, CompletableFuture<Void> previousReleaseNotes,
+            CompletableFuture<Void> releaseNotes, TrainNotifications trainNotifications) {
+        try {
+            doRun(githubRefName, previousRefName, previousReleaseNotes, releaseNotes, trainNotifications);
+        }
+        catch (RuntimeException e) {
+            releaseNotes.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void doRun(String githubRefName, String previousRefName, CompletableFuture<Void> previousReleaseNotes,
+            CompletableFuture<Void> releaseNotes, TrainNotifications trainNotifications) {
         String githubOrgRepo = processRunner.getOrgRepo();
         Input.assertInputs(githubOrgRepo, githubRefName, previousRefName);
         String githubRepo = githubOrgRepo.contains("/") ? githubOrgRepo.split("/")[1] : githubOrgRepo;
 
-        // Close milestone and move issues around
-        MilestoneWithDeadline newMilestoneId = updateMilestones(githubRefName);
+        // Steps that don't depend on each other run concurrently
+        try (TaskGraph graph = new TaskGraph("Post release of " + githubOrgRepo + " " + githubRefName)) {
+            // Close milestone and move issues around
+            Step<MilestoneMigration> milestoneMigration = graph.supply("Update milestones",
+                    () -> updateMilestones(githubRefName));
 
-        // Download GitHub Changelog Generator
-        File changelogJar = downloadChangelogGenerator();
+            // Download GitHub Changelog Generator
+            Step<File> changelogJar = graph.supply("Download changelog generator",
+                    () -> changelogEngine == null ? downloadChangelogGenerator() : null);
 
-        // Generate current changelog
-        File changelog = generateChangelog(githubRefName, githubOrgRepo, changelogJar);
+            // Generate current changelog, the milestone must contain all of its issues
+            Step<Changelog> changelog = graph.supply("Generate changelog",
+                    () -> debug(githubOrgRepo, githubRefName, "changelog.md",
+                            generateChangelog(githubRefName, githubOrgRepo, milestoneMigration.get(),
+                                    changelogJar.get())),
+                    milestoneMigration, changelogJar);
 
-        File oldChangelog = null;
-        // If previousRefName present - fetch its changelog
-        if (previousRefName != null && !previousRefName.isBlank()) {
-            oldChangelog = generateOldChangelog(previousRefName);
-        }
+            // If previousRefName present - fetch its changelog
+            Step<Changelog> oldChangelog = graph.supply("Fetch old changelog",
+                    () -> previousRefName != null && !previousRefName.isBlank()
+                            ? debug(githubOrgRepo, githubRefName, "old_changelog.md",
+                                    generateOldChangelog(previousRefName, previousReleaseNotes))
+                            : null);
 
-        // Process changelog
-        File outputChangelog = processChangelog(changelog, oldChangelog);
+            // Fetch dependencies to know which upgrades to skip
+            Step<Set<Dependency>> dependencies = graph.supply("Fetch dependencies",
+                    changelogProcessor::fetchAllDependencies);
 
-        // Update release notes
-        updateReleaseNotes(githubRefName, outputChangelog);
+            // Process changelog
+            Step<String> outputChangelog = graph.supply("Process changelog",
+                    () -> debug(githubOrgRepo, githubRefName, "changelog-output.md",
+                            processChangelog(changelog.get(), oldChangelog.get(), dependencies.get())),
+                    changelog, oldChangelog, dependencies);
 
-        // Send notifications
-        sendNotifications(githubRepo, githubRefName, newMilestoneId);
+            // Update release notes
+            Step<Void> releaseNotesUpdate = graph.run("Update release notes", () -> {
+                updateReleaseNotes(githubRefName, outputChangelog.get());
+                releaseNotes.complete(null);
+            }, outputChangelog);
+
+            // Send notifications, or leave them to the train
+            graph.run("Send notifications", () -> {
+                if (trainNotifications != null) {
+                    trainNotifications.add(githubRepo, githubRefName, milestoneMigration.get().newMilestone());
+                }
+                else {
+                    sendNotifications(githubRepo, githubRefName, milestoneMigration.get().newMilestone());
+                }
+            }, milestoneMigration, releaseNotesUpdate);
+
+            graph.await();
+        }
     }
 
     private File downloadChangelogGenerator() {
@@ -101,35 +205,58 @@ public class PostReleaseWorkflow {
         }
     }
 
-    private File generateOldChangelog(String githubRefName) {
+    private Changelog generateOldChangelog(String githubRefName, CompletableFuture<Void> releaseNotes) {
+        releaseNotes.join();
         return changelogFetcher.fetchChangelog(githubRefName);
     }
 
-    private File generateChangelog(String githubRefName, String githubOrgRepo, File jarPath) {
-        return changelogGenerator.generateChangelog(githubRefName, githubOrgRepo, jarPath);
+    private Changelog generateChangelog(String githubRefName, String githubOrgRepo,
+            MilestoneMigration milestoneMigration, File changelogJar) {
+        if (changelogEngine != null) {
+            return changelogEngine.generateChangelog(githubRefName, milestoneMigration.releasedIssues());
+        }
+        return changelogGenerator.generateChangelog(githubRefName, githubOrgRepo, changelogJar);
     }
 
-    private File processChangelog(File changelog, File oldChangelog) {
+    private String processChangelog(Changelog changelog, Changelog oldChangelog, Set<Dependency> dependencies) {
+        return changelogProcessor.processChangelog(changelog, oldChangelog, dependencies);
+    }
+
+    private Changelog debug(String githubOrgRepo, String refName, String fileName, Changelog changelog) {
+        debug(githubOrgRepo, refName, fileName, changelog.toMarkdown());
+        return changelog;
+    }
+
+    // Changelogs are passed around in memory, files are written only for debugging.
+    // Every project and version gets its own directory so that they can't clash
+    private String debug(String githubOrgRepo, String refName, String fileName, String changelog) {
+        if (debugDirectory == null) {
+            return changelog;
+        }
+        Path file = debugDirectory.resolve(githubOrgRepo).resolve(refName).resolve(fileName);
         try {
-            return changelogProcessor.processChangelog(changelog, oldChangelog);
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, changelog);
+            log.info("Stored [{}] for debugging", file.toAbsolutePath());
         }
-        catch (Exception e) {
-            throw new IllegalStateException(e);
+        catch (IOException e) {
+            log.warn("Failed to store [{}] for debugging", file.toAbsolutePath(), e);
         }
+        return changelog;
     }
 
-    private void updateReleaseNotes(String refName, File changelog) {
+    private void updateReleaseNotes(String refName, String changelog) {
         releaseNotesUpdater.updateReleaseNotes(refName, changelog);
     }
 
-    private MilestoneWithDeadline updateMilestones(String refName) {
-        MilestoneWithDeadline newMilestone = milestoneUpdater.updateMilestones(refName);
+    private MilestoneMigration updateMilestones(String refName) {
+        MilestoneMigration milestoneMigration = milestoneUpdater.updateMilestones(refName);
         milestoneUpdater.closeMilestone(refName);
-        return newMilestone;
+        return milestoneMigration;
     }
 
     private void sendNotifications(String repoName, String refName, MilestoneWithDeadline newMilestoneId) {
-        notificationSender.sendNotifications(repoName, refName, newMilestoneId);
+        NotificationSender.throwIfAnyFailed(notificationSender.sendNotifications(repoName, refName, newMilestoneId));
     }
 
 }
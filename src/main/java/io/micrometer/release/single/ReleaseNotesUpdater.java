@@ -15,25 +15,32 @@
  */
 package io.micrometer.release.single;
 
+import io.micrometer.release.common.GithubReleasesClient;
 import io.micrometer.release.common.ProcessRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-
 class ReleaseNotesUpdater {
 
     private static final Logger log = LoggerFactory.getLogger(ReleaseNotesUpdater.class);
 
-    private final ProcessRunner processRunner;
+    private final String githubOrgRepo;
+
+    private final GithubReleasesClient githubReleasesClient;
 
     ReleaseNotesUpdater(ProcessRunner processRunner) {
-        this.processRunner = processRunner;
+        this(processRunner.getOrgRepo(), new GithubReleasesClient());
+    }
+
+    // for tests
+    ReleaseNotesUpdater(String githubOrgRepo, GithubReleasesClient githubReleasesClient) {
+        this.githubOrgRepo = githubOrgRepo;
+        this.githubReleasesClient = githubReleasesClient;
     }
 
-    void updateReleaseNotes(String githubRef, File changelog) {
+    void updateReleaseNotes(String githubRef, String changelog) {
         log.info("Updating release notes...");
-        processRunner.run("gh", "release", "edit", githubRef, "--notes-file", changelog.getAbsolutePath());
+        githubReleasesClient.updateReleaseNotes(githubOrgRepo, githubRef, changelog);
     }
 
 }
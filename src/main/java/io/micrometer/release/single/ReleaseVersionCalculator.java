@@ -15,6 +15,7 @@
  */
 package io.micrometer.release.single;
 
+import io.micrometer.release.common.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,48 +24,8 @@ class ReleaseVersionCalculator {
     private static final Logger log = LoggerFactory.getLogger(ReleaseVersionCalculator.class);
 
     static String calculateNextVersion(String title) {
-        String[] parts = title.split("\\.");
-        // GA version
-        String nextVersion;
-        if (!title.contains("-")) {
-            nextVersion = parts[0] + "." + parts[1] + "." + (Integer.parseInt(parts[2]) + 1);
-            log.info("Version is GA will create a new milestone {}", nextVersion);
-        }
-        else {
-            // 1.0.0-M1, 1.0.0-RC1
-            String[] split = title.split("-");
-            if (split.length != 2) {
-                throw new IllegalStateException("Milestone title [" + title + "] contains invalid format");
-            }
-            // M1, RC1
-            String suffix = split[1];
-            if (suffix.contains("M")) {
-                int number = Integer.parseInt(suffix.substring(1));
-                if (number < 3) {
-                    // 1.0.0-M1 -> 1.0.0-M2
-                    nextVersion = split[0] + "-" + "M" + (number + 1);
-                    log.info("Version is Milestone but there will be another milestone {}", nextVersion);
-                }
-                else if (number == 3) {
-                    // 1.0.0-M3 -> 1.0.0-RC1
-                    nextVersion = split[0] + "-RC1";
-                    log.info("Version is M3 next, we will have {}", nextVersion);
-                }
-                else {
-                    throw new IllegalStateException(
-                            "Milestone title [" + title + "] contains invalid format (we accept M[1-3] or RC1)");
-                }
-            }
-            else if (suffix.contains("RC1")) {
-                // 1.0.0-RC1 -> 1.0.0
-                nextVersion = split[0];
-                log.info("Version is RC1, next we will have GA {}", nextVersion);
-            }
-            else {
-                throw new IllegalStateException(
-                        "Milestone title [" + title + "] contains invalid format (we accept M[1-3] or RC1)");
-            }
-        }
+        String nextVersion = Version.parse(title).next().toString();
+        log.info("Version after [{}] will be [{}]", title, nextVersion);
         return nextVersion;
     }
 
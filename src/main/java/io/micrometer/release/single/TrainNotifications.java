@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.single;
+
+import io.micrometer.release.common.Version;
+import io.micrometer.release.single.NotificationSender.Release;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the notifications of all the versions released in a train so that every
+ * notifier gets a single message for the whole train instead of one per version.
+ */
+public class TrainNotifications {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainNotifications.class);
+
+    private final NotificationSender notificationSender;
+
+    // Versions of a project are post-processed concurrently
+    private final Queue<Release> releases = new ConcurrentLinkedQueue<>();
+
+    public TrainNotifications() {
+        this(new NotificationSender());
+    }
+
+    // for tests
+    TrainNotifications(NotificationSender notificationSender) {
+        this.notificationSender = notificationSender;
+    }
+
+    void add(String repoName, String refName, MilestoneWithDeadline newMilestone) {
+        log.info("Notifications for [{}] [{}] will be sent together with the rest of the train", repoName, refName);
+        releases.add(new Release(repoName, refName, newMilestone));
+    }
+
+    /**
+     * Runs the train and sends the notifications afterwards. Versions released before a
+     * failure still get announced.
+     * @param train releases the versions
+     */
+    public void sendAfter(Runnable train) {
+        try {
+            train.run();
+        }
+        catch (RuntimeException e) {
+            try {
+                send();
+            }
+            catch (RuntimeException notificationFailure) {
+                e.addSuppressed(notificationFailure);
+            }
+            throw e;
+        }
+        send();
+    }
+
+    /**
+     * Sends the notifications of all the versions collected so far.
+     */
+    public void send() {
+        List<Release> collected = drain();
+        if (collected.isEmpty()) {
+            log.info("No released versions to send notifications for");
+            return;
+        }
+        log.info("Sending notifications for [{}] released versions", collected.size());
+        NotificationSender.throwIfAnyFailed(notificationSender.sendTrainNotifications(collected));
+    }
+
+    // Projects in the order they got released, versions of a project in version order
+    private List<Release> drain() {
+        Map<String, List<Release>> projects = new LinkedHashMap<>();
+        Release release;
+        while ((release = releases.poll()) != null) {
+            projects.computeIfAbsent(release.repoName(), project -> new ArrayList<>()).add(release);
+        }
+        List<Release> sorted = new ArrayList<>();
+        projects.values().forEach(versions -> {
+            versions.sort(Comparator.comparing(version -> Version.parse(version.refName())));
+            sorted.addAll(versions);
+        });
+        return sorted;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.train;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff for polling, doubling the wait time up to a maximum. With jitter
+ * the wait time is randomly shortened, so that concurrent pollers don't poll in lockstep.
+ */
+class Backoff {
+
+    private final Duration max;
+
+    private final double jitter;
+
+    private Duration next;
+
+    Backoff(Duration initial, Duration max) {
+        this(initial, max, 0);
+    }
+
+    /**
+     * @param jitter up to which fraction the wait time gets randomly shortened, between
+     * {@code 0} and {@code 1}
+     */
+    Backoff(Duration initial, Duration max, double jitter) {
+        this.next = initial;
+        this.max = max;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @return time to wait before the next poll
+     */
+    Duration next() {
+        Duration current = next;
+        Duration doubled = current.multipliedBy(2);
+        next = doubled.compareTo(max) > 0 ? max : doubled;
+        if (jitter == 0) {
+            return current;
+        }
+        double factor = 1 - jitter * ThreadLocalRandom.current().nextDouble();
+        return Duration.ofNanos((long) (current.toNanos() * factor));
+    }
+
+}
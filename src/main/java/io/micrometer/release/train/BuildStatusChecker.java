@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.train;
+
+import io.micrometer.release.common.Input;
+import io.micrometer.release.common.ReleaseHttpClient;
+
+import java.io.IOException;
+
+/**
+ * Tells whether CI built a released version successfully.
+ */
+interface BuildStatusChecker {
+
+    /**
+     * Waits for CI to finish building the tag of the version.
+     * @param version released version
+     * @return {@code true} when CI built the version successfully, {@code false} when it
+     * didn't finish in time or got e.g. canceled
+     * @throws IllegalStateException when CI failed
+     */
+    boolean checkBuildStatus(String version) throws IOException, InterruptedException;
+
+    static BuildStatusChecker forProject(String githubOrgRepo) {
+        return forProject(githubOrgRepo, Input.getCiGate());
+    }
+
+    /**
+     * @param ciGate {@code circleci} (default) or {@code github-checks}
+     * @throws IllegalStateException when the CI gate is unknown
+     */
+    static BuildStatusChecker forProject(String githubOrgRepo, String ciGate) {
+        if (ciGate == null || ciGate.isBlank() || CircleCiChecker.CI_GATE.equalsIgnoreCase(ciGate.trim())) {
+            return new CircleCiChecker(System.getenv("CIRCLE_CI_TOKEN"), githubOrgRepo, ReleaseHttpClient.shared());
+        }
+        if (GithubChecksChecker.CI_GATE.equalsIgnoreCase(ciGate.trim())) {
+            return new GithubChecksChecker(githubOrgRepo);
+        }
+        throw new IllegalStateException("Unknown CI gate [" + ciGate + "], use [" + CircleCiChecker.CI_GATE + "] or ["
+                + GithubChecksChecker.CI_GATE + "]");
+    }
+
+}
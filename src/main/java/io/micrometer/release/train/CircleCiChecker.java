@@ -14,7 +14,7 @@
 package io.micrometer.release.train;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.release.common.JsonCodec;
 
 import java.net.http.HttpResponse.BodyHandlers;
 
@@ -27,101 +27,254 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
-class CircleCiChecker {
+/**
+ * Waits for the CircleCI builds of released tags. All versions of a project share one
+ * index from tag to pipeline that gets updated with the pipelines created since the
+ * previous refresh only, so concurrently waiting versions don't page through the
+ * pipelines on their own.
+ */
+class CircleCiChecker implements BuildStatusChecker {
 
     private static final Logger log = LoggerFactory.getLogger(CircleCiChecker.class);
 
+    static final String CI_GATE = "circleci";
+
     private static final String CIRCLE_URL = "https://circleci.com/api/v2/";
 
+    // Pipelines of new tags are on the first page, the second one covers busy projects
+    private static final int FIRST_REFRESH_PAGES = 2;
+
+    // Safety cap, a refresh that reaches it leaves the remaining pages to the next one
+    static final int MAX_PAGES_PER_REFRESH = 20;
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(5);
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    // Together with the build they have to fit into the timeout of a release task
+    private static final Duration PIPELINE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Duration WORKFLOW_TIMEOUT = Duration.ofMinutes(20);
+
+    private static final Set<String> FAILED_STATUSES = Set.of("failed", "failing", "error");
+
+    private static final Set<String> UNSUCCESSFUL_STATUSES = Set.of("canceled", "not_run", "unauthorized");
+
     private final String circleCiToken;
 
     private final String githubOrgRepo;
 
     private final HttpClient httpClient;
 
-    private final ObjectMapper objectMapper;
-
     private final String externalUrl;
 
-    private final int waitTimeMs;
+    private final Duration initialBackoff;
 
-    private final int numberOfRetries;
+    private final Duration maxBackoff;
 
-    CircleCiChecker(String circleCiToken, String githubOrgRepo, HttpClient httpClient, ObjectMapper objectMapper) {
-        this.circleCiToken = circleCiToken;
-        this.githubOrgRepo = githubOrgRepo;
-        this.httpClient = httpClient;
-        this.objectMapper = objectMapper;
-        this.externalUrl = System.getenv("CI_URL") != null ? System.getenv("CI_URL") : CIRCLE_URL;
-        this.waitTimeMs = 5 * 1000;
-        this.numberOfRetries = 3;
+    private final Duration pipelineTimeout;
+
+    private final Duration workflowTimeout;
+
+    // tag -> pipeline, completed as soon as a refresh finds the pipeline
+    private final Map<String, CompletableFuture<Pipeline>> pipelinesByTag = new ConcurrentHashMap<>();
+
+    private final Set<String> indexedPipelineIds = ConcurrentHashMap.newKeySet();
+
+    // pages a refresh stopped at before reaching indexed pipelines
+    private final Deque<String> unindexedPageTokens = new ArrayDeque<>();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private long lastRefreshNanos;
+
+    private boolean refreshed;
+
+    CircleCiChecker(String circleCiToken, String githubOrgRepo, HttpClient httpClient) {
+        this(circleCiToken, githubOrgRepo, httpClient,
+                System.getenv("CI_URL") != null ? System.getenv("CI_URL") : CIRCLE_URL, INITIAL_BACKOFF, MAX_BACKOFF,
+                PIPELINE_TIMEOUT, WORKFLOW_TIMEOUT);
+    }
+
+    // for tests
+    CircleCiChecker(String circleCiToken, String githubOrgRepo, HttpClient httpClient, String externalUrl,
+            Duration initialBackoff, Duration maxBackoff, Duration timeout) {
+        this(circleCiToken, githubOrgRepo, httpClient, externalUrl, initialBackoff, maxBackoff, timeout, timeout);
     }
 
-    CircleCiChecker(String circleCiToken, String githubOrgRepo, HttpClient httpClient, ObjectMapper objectMapper,
-            String externalUrl, int waitTimeMs, int numberOfRetries) {
+    private CircleCiChecker(String circleCiToken, String githubOrgRepo, HttpClient httpClient, String externalUrl,
+            Duration initialBackoff, Duration maxBackoff, Duration pipelineTimeout, Duration workflowTimeout) {
         this.circleCiToken = circleCiToken;
         this.githubOrgRepo = githubOrgRepo;
         this.httpClient = httpClient;
-        this.objectMapper = objectMapper;
         this.externalUrl = externalUrl;
-        this.waitTimeMs = waitTimeMs;
-        this.numberOfRetries = numberOfRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.pipelineTimeout = pipelineTimeout;
+        this.workflowTimeout = workflowTimeout;
     }
 
-    boolean checkBuildStatus(String version) throws IOException, InterruptedException {
+    /**
+     * Waits for the pipeline of the version's tag and then for its workflows to finish.
+     * @param version released version
+     * @return {@code true} when all workflows succeeded, {@code false} when they didn't
+     * finish in time or got e.g. canceled
+     * @throws IllegalStateException when there's no pipeline for the tag or a workflow
+     * failed
+     */
+    @Override
+    public boolean checkBuildStatus(String version) throws IOException, InterruptedException {
         log.info("Checking CircleCI status for version: [{}]", version);
         String tag = "v" + version;
-        String apiUrl = externalUrl + "project/github/" + githubOrgRepo + "/pipeline";
-        log.info("Waiting for [{}] ms for the CircleCI build to appear", waitTimeMs);
-        Thread.sleep(waitTimeMs);
-        log.info("Will try [{}] times with wait time [{}] ms to check if the build in CircleCI appeared",
-                numberOfRetries, waitTimeMs);
-        for (int i = 0; i < numberOfRetries; i++) {
-            int pageCount = 0;
-            // Limit to 2 pages - there shouldn't be more jobs to search against
-            while (apiUrl != null && pageCount < 2) {
-                HttpRequest request = getCircleHttpRequest(apiUrl);
-                PipelineResponse pipelineResponse = getPipelineResponse(request);
-                for (Pipeline pipeline : pipelineResponse.items()) {
-                    if (tag.equals(pipeline.vcs().tag())) {
-                        return checkWorkflowStatus(pipeline.id());
-                    }
-                }
-                apiUrl = pipelineResponse.nextPageToken() != null
-                        ? apiUrl + "?page-token=" + pipelineResponse.nextPageToken() : null;
-                pageCount++;
-                log.info("The tag [{}] was not found in this page, trying page [{}]", tag, pageCount);
+        Pipeline pipeline = awaitPipeline(tag);
+        log.info("Found CircleCI pipeline [{}] for tag [{}]", pipeline.id(), tag);
+        return awaitWorkflows(tag, pipeline.id());
+    }
+
+    private Pipeline awaitPipeline(String tag) throws IOException, InterruptedException {
+        CompletableFuture<Pipeline> pipeline = pipelinesByTag.computeIfAbsent(tag, t -> new CompletableFuture<>());
+        long deadline = System.nanoTime() + pipelineTimeout.toNanos();
+        Backoff backoff = new Backoff(initialBackoff, maxBackoff);
+        while (!pipeline.isDone()) {
+            refreshIndex();
+            long remainingNanos = deadline - System.nanoTime();
+            if (pipeline.isDone() || remainingNanos <= 0) {
+                break;
+            }
+            Duration wait = backoff.next();
+            log.info("No CircleCI pipeline found for tag [{}] yet, will check again in at most [{}]", tag, wait);
+            try {
+                // Wakes up as soon as a refresh triggered by another version finds the tag
+                pipeline.get(Math.min(wait.toNanos(), remainingNanos), TimeUnit.NANOSECONDS);
+            }
+            catch (TimeoutException e) {
+                log.debug("Still no CircleCI pipeline for tag [{}]", tag);
             }
-            log.info("Try [{}/{}] - no CircleCI pipeline found for tag [{}], will try again in [{}] ms", i + 1,
-                    numberOfRetries, tag, waitTimeMs);
-            Thread.sleep(waitTimeMs);
+            catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        if (!pipeline.isDone()) {
+            throw new IllegalStateException("No CircleCI pipeline found for tag [" + tag + "]");
         }
-        throw new IllegalStateException("No CircleCI pipeline found for tag [" + tag + "]");
+        return pipeline.join();
     }
 
-    private PipelineResponse getPipelineResponse(HttpRequest request) throws IOException, InterruptedException {
-        HttpResponse<String> response = sendPipelineRequest(request);
-        return objectMapper.readValue(response.body(), PipelineResponse.class);
+    // Only one version refreshes at a time, the others reuse its result
+    private void refreshIndex() throws IOException, InterruptedException {
+        refreshLock.lockInterruptibly();
+        try {
+            if (refreshed && System.nanoTime() - lastRefreshNanos < initialBackoff.toNanos()) {
+                return;
+            }
+            int remainingPages = refreshed ? MAX_PAGES_PER_REFRESH : FIRST_REFRESH_PAGES;
+            // The first refresh doesn't go further back, older pipelines are of earlier releases
+            remainingPages -= indexPipelines(null, remainingPages, refreshed);
+            while (remainingPages > 0 && !unindexedPageTokens.isEmpty()) {
+                remainingPages -= indexPipelines(unindexedPageTokens.poll(), remainingPages, true);
+            }
+            refreshed = true;
+            lastRefreshNanos = System.nanoTime();
+        }
+        finally {
+            refreshLock.unlock();
+        }
     }
 
-    private HttpResponse<String> sendPipelineRequest(HttpRequest request) throws IOException, InterruptedException {
-        return httpClient.send(request, BodyHandlers.ofString());
+    /**
+     * Indexes the pipelines from the given page on until reaching indexed ones.
+     * @param pageToken page to start from, {@code null} for the newest pipelines
+     * @param maxPages number of pages to read at most
+     * @param resumable whether a later refresh continues with the pages this one didn't
+     * get to
+     * @return number of pages used up
+     */
+    private int indexPipelines(String pageToken, int maxPages, boolean resumable)
+            throws IOException, InterruptedException {
+        String pipelinesUrl = externalUrl + "project/github/" + githubOrgRepo + "/pipeline";
+        String currentToken = pageToken;
+        int pageCount = 0;
+        while (pageCount < maxPages) {
+            PipelineResponse page = getPipelineResponse(getCircleHttpRequest(
+                    currentToken != null ? pipelinesUrl + "?page-token=" + currentToken : pipelinesUrl));
+            if (page == null) {
+                // Leaves the rest to the next refresh
+                pageCount = maxPages;
+                break;
+            }
+            pageCount++;
+            if (reachedIndexedPipelines(page) || page.nextPageToken() == null) {
+                return pageCount;
+            }
+            currentToken = page.nextPageToken();
+        }
+        if (resumable && currentToken != null) {
+            log.debug("Will index CircleCI pipelines from page [{}] on in the next refresh", currentToken);
+            unindexedPageTokens.add(currentToken);
+        }
+        return pageCount;
     }
 
-    private boolean checkWorkflowStatus(String pipelineId) throws IOException, InterruptedException {
-        String workflowUrl = externalUrl + "pipeline/" + pipelineId + "/workflow";
-        HttpRequest request = getCircleHttpRequest(workflowUrl);
-        HttpResponse<String> response = sendWorkflowRequest(request);
-        WorkflowResponse workflowResponse = objectMapper.readValue(response.body(), WorkflowResponse.class);
-        for (Workflow workflow : workflowResponse.items()) {
-            if (!"success".equalsIgnoreCase(workflow.status())) {
-                if ("failed".equalsIgnoreCase(workflow.status())) {
+    private boolean reachedIndexedPipelines(PipelineResponse page) {
+        for (Pipeline pipeline : page.items()) {
+            // Pipelines are listed newest first, the rest of the list is known already
+            if (!indexedPipelineIds.add(pipeline.id())) {
+                return true;
+            }
+            if (pipeline.vcs() != null && pipeline.vcs().tag() != null) {
+                pipelinesByTag.computeIfAbsent(pipeline.vcs().tag(), t -> new CompletableFuture<>())
+                    .complete(pipeline);
+            }
+        }
+        return false;
+    }
+
+    private boolean awaitWorkflows(String tag, String pipelineId) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + workflowTimeout.toNanos();
+        Backoff backoff = new Backoff(initialBackoff, maxBackoff);
+        while (true) {
+            List<Workflow> workflows = getWorkflows(pipelineId);
+            for (Workflow workflow : workflows) {
+                if (FAILED_STATUSES.contains(workflow.status())) {
                     log.warn("At least one workflow failed!");
-                    throw new IllegalStateException("Workflow [" + workflow.name + "] failed!");
+                    throw new IllegalStateException("Workflow [" + workflow.name() + "] failed!");
                 }
-                log.warn("There was at least one workflow that didn't complete successfully");
+            }
+            if (!workflows.isEmpty() && workflows.stream().allMatch(CircleCiChecker::isFinished)) {
+                return allSuccessful(workflows);
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                log.warn("CircleCI workflows of tag [{}] didn't finish within [{}]", tag, workflowTimeout);
+                return false;
+            }
+            Duration wait = backoff.next();
+            log.info("CircleCI workflows of tag [{}] are still running, will check again in [{}]", tag, wait);
+            TimeUnit.NANOSECONDS.sleep(Math.min(wait.toNanos(), remainingNanos));
+        }
+    }
+
+    private static boolean isFinished(Workflow workflow) {
+        return "success".equals(workflow.status()) || UNSUCCESSFUL_STATUSES.contains(workflow.status());
+    }
+
+    private static boolean allSuccessful(List<Workflow> workflows) {
+        for (Workflow workflow : workflows) {
+            if (!"success".equals(workflow.status())) {
+                log.warn("Workflow [{}] finished with status [{}]", workflow.name(), workflow.status());
                 return false;
             }
         }
@@ -129,8 +282,30 @@ class CircleCiChecker {
         return true;
     }
 
-    private HttpResponse<String> sendWorkflowRequest(HttpRequest request) throws IOException, InterruptedException {
-        return httpClient.send(request, BodyHandlers.ofString());
+    // null when CircleCI is temporarily unavailable
+    private PipelineResponse getPipelineResponse(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request);
+        return response != null ? JsonCodec.read(response.body(), PipelineResponse.class) : null;
+    }
+
+    // empty when CircleCI is temporarily unavailable
+    private List<Workflow> getWorkflows(String pipelineId) throws IOException, InterruptedException {
+        String workflowUrl = externalUrl + "pipeline/" + pipelineId + "/workflow";
+        HttpResponse<String> response = send(getCircleHttpRequest(workflowUrl));
+        return response != null ? JsonCodec.readArray(response.body(), "items", Workflow.class) : List.of();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+        if (response.statusCode() == 429 || response.statusCode() >= 500) {
+            log.warn("CircleCI responded with [{}] to [{}], will retry", response.statusCode(), request.uri());
+            return null;
+        }
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(
+                    "Unexpected CircleCI response code [" + response.statusCode() + "] for [" + request.uri() + "]");
+        }
+        return response;
     }
 
     private HttpRequest getCircleHttpRequest(String workflowUrl) {
@@ -158,8 +333,4 @@ class CircleCiChecker {
 
     }
 
-    public record WorkflowResponse(@JsonProperty("items") List<Workflow> items) {
-
-    }
-
 }
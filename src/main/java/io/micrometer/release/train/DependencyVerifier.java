@@ -15,11 +15,10 @@
  */
 package io.micrometer.release.train;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.release.common.Dependency;
 import io.micrometer.release.common.GradleParser;
 import io.micrometer.release.common.Input;
+import io.micrometer.release.common.JsonCodec;
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
 import org.slf4j.Logger;
@@ -40,8 +39,6 @@ class DependencyVerifier {
 
     private final ProcessRunner processRunner;
 
-    private final ObjectMapper objectMapper;
-
     private final int initialWait;
 
     private final int timeout;
@@ -52,10 +49,9 @@ class DependencyVerifier {
 
     private final Git git;
 
-    DependencyVerifier(ProcessRunner processRunner, ObjectMapper objectMapper) {
+    DependencyVerifier(ProcessRunner processRunner) {
         this.processRunner = processRunner;
         this.git = new Git(processRunner);
-        this.objectMapper = objectMapper;
         this.timeUnit = TimeUnit.SECONDS;
         this.initialWait = 15;
         this.timeout = 60 * 10;
@@ -63,10 +59,9 @@ class DependencyVerifier {
     }
 
     // for tests
-    DependencyVerifier(ProcessRunner processRunner, ObjectMapper objectMapper, Git git, int initialWait, int timeout,
-            int waitBetweenRuns, TimeUnit timeUnit) {
+    DependencyVerifier(ProcessRunner processRunner, Git git, int initialWait, int timeout, int waitBetweenRuns,
+            TimeUnit timeUnit) {
         this.processRunner = processRunner;
-        this.objectMapper = objectMapper;
         this.git = git;
         this.initialWait = initialWait;
         this.timeout = timeout;
@@ -214,34 +209,28 @@ class DependencyVerifier {
         long timeoutMillis = timeUnit.toMillis(timeout / 2);
         while (System.currentTimeMillis() - startTime < timeoutMillis) {
             List<String> curl = curlRuns(orgRepository, githubServerTime, id);
-            try {
-                Workflows workflows = objectMapper.readValue(String.join("\n", curl), Workflows.class);
-                List<Pr> prs = workflows.workflow_runs()
-                    .stream()
-                    .filter(pr -> "dependabot[bot]".equals(pr.actor().login()))
-                    .toList();
-                if (prs.isEmpty()) {
-                    log.info("No dependabot jobs found");
-                }
-                else {
-                    log.info("Found {} Dependabot jobs", prs.size());
-                    boolean allCompleted = prs.stream().allMatch(pr -> pr.status().equalsIgnoreCase("completed"));
-                    if (allCompleted) {
-                        log.info("All dependabot jobs completed");
-                        return;
-                    }
-                    Set<Pr> notCompleted = prs.stream()
-                        .filter(pr -> !pr.status.equalsIgnoreCase("completed"))
-                        .collect(Collectors.toSet());
-                    log.info("Found {} not completed jobs\n", notCompleted.size());
-                    notCompleted.forEach(pr -> log.info("\t{}", pr));
-                }
-                log.info("Not all Dependabot jobs processed, will try again...");
-                sleep(waitBetweenRuns);
+            List<Pr> prs = JsonCodec.readArray(String.join("\n", curl), "workflow_runs", Pr.class)
+                .stream()
+                .filter(pr -> pr.actor() != null && "dependabot[bot]".equals(pr.actor().login()))
+                .toList();
+            if (prs.isEmpty()) {
+                log.info("No dependabot jobs found");
             }
-            catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
+            else {
+                log.info("Found {} Dependabot jobs", prs.size());
+                boolean allCompleted = prs.stream().allMatch(pr -> pr.status().equalsIgnoreCase("completed"));
+                if (allCompleted) {
+                    log.info("All dependabot jobs completed");
+                    return;
+                }
+                Set<Pr> notCompleted = prs.stream()
+                    .filter(pr -> !pr.status.equalsIgnoreCase("completed"))
+                    .collect(Collectors.toSet());
+                log.info("Found {} not completed jobs\n", notCompleted.size());
+                notCompleted.forEach(pr -> log.info("\t{}", pr));
             }
+            log.info("Not all Dependabot jobs processed, will try again...");
+            sleep(waitBetweenRuns);
         }
         log.error("Failed! Dependabot jobs not processed within the provided timeout");
         throw new IllegalStateException("Timeout waiting for Dependabot jobs to complete");
@@ -261,10 +250,6 @@ class DependencyVerifier {
 
     }
 
-    record Workflows(List<Pr> workflow_runs) {
-
-    }
-
     private String getDependabotupdatesWorkflowId(String orgRepository) {
         List<String> ids = processRunner.run("gh", "workflow", "list", "-R", orgRepository, "--json", "id,name", "--jq",
                 ".[] | select(.name==\"Dependabot Updates\") | .id");
@@ -15,17 +15,38 @@ package io.micrometer.release.train;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 class FutureUtility {
 
-    static void waitForTasksToComplete(List<CompletableFuture<Void>> releaseTasks) {
-        CompletableFuture
-            .allOf(releaseTasks.stream()
-                .map(future -> future.orTimeout(30, TimeUnit.MINUTES))
-                .toList()
-                .toArray(new CompletableFuture[0]))
-            .join();
+    // Every stage (dependency verification, release and CI, post-release, Maven Central
+    // sync) of a version gets that much time
+    private static final long STAGE_TIMEOUT_MINUTES = 30;
+
+    // Stages are given their timeouts with withStageTimeout, so this one doesn't add any
+    static void waitForTasksToComplete(List<CompletableFuture<Void>> tasks) {
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    }
+
+    static <T> CompletableFuture<T> withStageTimeout(CompletableFuture<T> task) {
+        return task.orTimeout(STAGE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // The timeout starts once the task runs, not while it waits to be executed
+    static CompletableFuture<Void> runWithStageTimeout(Runnable task, Executor executor) {
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        executor.execute(() -> {
+            withStageTimeout(stage);
+            try {
+                task.run();
+                stage.complete(null);
+            }
+            catch (Throwable throwable) {
+                stage.completeExceptionally(throwable);
+            }
+        });
+        return stage;
     }
 
 }
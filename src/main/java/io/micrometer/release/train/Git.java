@@ -18,6 +18,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 class Git {
 
@@ -29,10 +31,27 @@ class Git {
         this.processRunner = processRunner;
     }
 
-    void changeTag(String tag) {
-        log.info("Changing git head to tag [{}]", tag);
-        processRunner.run("git", "fetch", "origin", "refs/tags/" + tag);
-        processRunner.run("git", "checkout", "FETCH_HEAD");
+    // Every tag gets its own working tree, so that tags can be worked on concurrently
+    File addWorktree(String tag) {
+        File worktree = worktreeDir(tag);
+        log.info("Checking out tag [{}] to worktree [{}]", tag, worktree.getAbsolutePath());
+        processRunner.run("git", "fetch", "origin", "+refs/tags/" + tag + ":refs/tags/" + tag);
+        processRunner.run("git", "worktree", "add", "--detach", worktree.getAbsolutePath(), "refs/tags/" + tag);
+        return worktree;
+    }
+
+    void removeWorktree(File worktree) {
+        log.info("Removing worktree [{}]", worktree.getAbsolutePath());
+        processRunner.run("git", "worktree", "remove", "--force", worktree.getAbsolutePath());
+    }
+
+    File worktreeDir(String tag) {
+        try {
+            return Files.createTempDirectory("worktree-" + tag + "-").toFile();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     File cloneRepo(String branch, String orgRepository) {
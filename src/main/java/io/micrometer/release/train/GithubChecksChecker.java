@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.train;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.release.common.GithubPaginator;
+import io.micrometer.release.common.Input;
+import io.micrometer.release.common.JsonCodec;
+import io.micrometer.release.common.ReleaseHttpClient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Waits for the commit statuses and check runs that CI (e.g. CircleCI) reports to GitHub
+ * for the commit of a released tag. Unlike looking the tag up in the CI's own list of
+ * builds, every poll is a lookup by commit, no matter how many builds the project has.
+ * The released commit usually is the branch HEAD that CI already built, so only statuses
+ * and check runs reported after the release got published count as the tag build.
+ * <p>
+ * CI reports a job only when the job starts, so a tag build can look finished while its
+ * later jobs haven't even started. That's why every required check has to report for the
+ * tag build. The required checks are either configured or the ones that the branch build
+ * reported for the same commit.
+ */
+class GithubChecksChecker implements BuildStatusChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubChecksChecker.class);
+
+    static final String CI_GATE = "github-checks";
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(5);
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    // Has to fit into the timeout of a release task
+    private static final Duration TIMEOUT = Duration.ofMinutes(25);
+
+    private static final Set<String> FAILED_STATUSES = Set.of("failure", "error");
+
+    private static final Set<String> FAILED_CONCLUSIONS = Set.of("failure", "timed_out", "startup_failure");
+
+    private static final Set<String> SUCCESSFUL_CONCLUSIONS = Set.of("success", "neutral", "skipped");
+
+    private final HttpClient httpClient;
+
+    private final GithubPaginator githubPaginator;
+
+    private final String githubApiUrl;
+
+    private final String githubToken;
+
+    private final String githubOrgRepo;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final Duration timeout;
+
+    // Status contexts and check run names, empty when taken from the branch build
+    private final Set<String> requiredChecks;
+
+    GithubChecksChecker(String githubOrgRepo) {
+        this(ReleaseHttpClient.shared(), GithubPaginator.GITHUB_API_URL, Input.getGhToken(), githubOrgRepo,
+                INITIAL_BACKOFF, MAX_BACKOFF, TIMEOUT, requiredChecks(Input.getCiRequiredChecks()));
+    }
+
+    // for tests
+    GithubChecksChecker(HttpClient httpClient, String githubApiUrl, String githubToken, String githubOrgRepo,
+            Duration initialBackoff, Duration maxBackoff, Duration timeout, Set<String> requiredChecks) {
+        this.httpClient = httpClient;
+        this.githubPaginator = new GithubPaginator(httpClient, githubApiUrl, githubToken, 1);
+        this.githubApiUrl = githubApiUrl;
+        this.githubToken = githubToken;
+        this.githubOrgRepo = githubOrgRepo;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.timeout = timeout;
+        this.requiredChecks = requiredChecks;
+    }
+
+    static Set<String> requiredChecks(String requiredChecks) {
+        if (requiredChecks == null || requiredChecks.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(requiredChecks.split(","))
+            .map(String::trim)
+            .filter(check -> !check.isEmpty())
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Override
+    public boolean checkBuildStatus(String version) throws IOException, InterruptedException {
+        String tag = "v" + version;
+        log.info("Checking GitHub commit checks for tag [{}]", tag);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Backoff backoff = new Backoff(initialBackoff, maxBackoff);
+        String sha = null;
+        Instant publishedAt = null;
+        while (true) {
+            if (sha == null) {
+                sha = resolveSha(tag);
+            }
+            if (sha != null && publishedAt == null) {
+                publishedAt = resolvePublishedAt(tag);
+            }
+            if (publishedAt != null) {
+                Boolean result = evaluate(tag, sha, publishedAt);
+                if (result != null) {
+                    return result;
+                }
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                if (sha == null) {
+                    throw new IllegalStateException("Can't find the commit of tag [" + tag + "]");
+                }
+                if (publishedAt == null) {
+                    throw new IllegalStateException("Can't find the release of tag [" + tag + "]");
+                }
+                log.warn("Checks of tag [{}] didn't finish within [{}]", tag, timeout);
+                return false;
+            }
+            Duration wait = backoff.next();
+            log.info("Checks of tag [{}] haven't finished yet, will check again in [{}]", tag, wait);
+            TimeUnit.NANOSECONDS.sleep(Math.min(wait.toNanos(), remainingNanos));
+        }
+    }
+
+    // null when the tag isn't visible yet
+    private String resolveSha(String tag) throws IOException, InterruptedException {
+        String sha = get("/commits/" + tag, "application/vnd.github.sha");
+        if (sha != null) {
+            log.info("Tag [{}] points to commit [{}]", tag, sha.trim());
+            return sha.trim();
+        }
+        return null;
+    }
+
+    // null when the release isn't visible yet
+    private Instant resolvePublishedAt(String tag) throws IOException, InterruptedException {
+        String release = get("/releases/tags/" + tag, "application/vnd.github+json");
+        String publishedAt = release != null ? JsonCodec.readText(release, "published_at") : null;
+        if (publishedAt != null) {
+            log.info("Release of tag [{}] got published at [{}]", tag, publishedAt);
+            return Instant.parse(publishedAt);
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code null} when CI hasn't finished yet
+     */
+    private Boolean evaluate(String tag, String sha, Instant publishedAt) throws IOException, InterruptedException {
+        String combinedStatus = get("/commits/" + sha + "/status?per_page=100", "application/vnd.github+json");
+        List<CheckRun> allRuns = checkRuns(sha);
+        if (combinedStatus == null || allRuns == null) {
+            return null;
+        }
+        List<CommitStatus> allStatuses = JsonCodec.readArray(combinedStatus, "statuses", CommitStatus.class);
+        // Skip what builds of the branch reported before the tag existed
+        List<CommitStatus> statuses = allStatuses.stream()
+            .filter(status -> isReportedSince(status.createdAt(), publishedAt))
+            .toList();
+        List<CheckRun> runs = allRuns.stream().filter(run -> isReportedSince(run.startedAt(), publishedAt)).toList();
+        for (CommitStatus status : statuses) {
+            if (FAILED_STATUSES.contains(status.state())) {
+                throw new IllegalStateException(
+                        "Commit status [" + status.context() + "] of tag [" + tag + "] failed!");
+            }
+        }
+        for (CheckRun run : runs) {
+            if (FAILED_CONCLUSIONS.contains(run.conclusion())) {
+                throw new IllegalStateException("Check run [" + run.name() + "] of tag [" + tag + "] failed!");
+            }
+        }
+        Set<String> missingChecks = new TreeSet<>(
+                requiredChecks.isEmpty() ? reportedBefore(allStatuses, allRuns, publishedAt) : requiredChecks);
+        statuses.forEach(status -> missingChecks.remove(status.context()));
+        runs.forEach(run -> missingChecks.remove(run.name()));
+        if (!missingChecks.isEmpty()) {
+            log.info("Checks {} haven't reported for tag [{}] yet", missingChecks, tag);
+            return null;
+        }
+        boolean finished = statuses.stream().noneMatch(status -> "pending".equals(status.state()))
+                && runs.stream().allMatch(run -> "completed".equals(run.status()));
+        // Nothing reported yet means CI hasn't picked the tag up yet
+        if ((statuses.isEmpty() && runs.isEmpty()) || !finished) {
+            return null;
+        }
+        for (CheckRun run : runs) {
+            if (!SUCCESSFUL_CONCLUSIONS.contains(run.conclusion())) {
+                log.warn("Check run [{}] of tag [{}] finished with [{}]", run.name(), tag, run.conclusion());
+                return false;
+            }
+        }
+        log.info("All [{}] commit statuses and [{}] check runs of tag [{}] succeeded", statuses.size(), runs.size(),
+                tag);
+        return true;
+    }
+
+    // null when GitHub is temporarily unavailable
+    private List<CheckRun> checkRuns(String sha) {
+        List<CheckRun> runs = new ArrayList<>();
+        try {
+            githubPaginator.fetchPages("/repos/" + githubOrgRepo + "/commits/" + sha + "/check-runs?per_page=100",
+                    page -> runs.addAll(JsonCodec.readArray(page, "check_runs", CheckRun.class)));
+        }
+        catch (IllegalStateException e) {
+            log.warn("Failed to fetch the check runs of commit [{}], will retry", sha, e);
+            return null;
+        }
+        return runs;
+    }
+
+    private static Set<String> reportedBefore(List<CommitStatus> statuses, List<CheckRun> runs, Instant publishedAt) {
+        Set<String> checks = new TreeSet<>();
+        statuses.stream()
+            .filter(status -> !isReportedSince(status.createdAt(), publishedAt))
+            .forEach(status -> checks.add(status.context()));
+        runs.stream()
+            .filter(run -> !isReportedSince(run.startedAt(), publishedAt))
+            .forEach(run -> checks.add(run.name()));
+        return checks;
+    }
+
+    private static boolean isReportedSince(String timestamp, Instant publishedAt) {
+        return timestamp != null && !Instant.parse(timestamp).isBefore(publishedAt);
+    }
+
+    // null when the resource isn't there yet or GitHub is temporarily unavailable
+    private String get(String path, String accept) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(githubApiUrl + "/repos/" + githubOrgRepo + path))
+            .header("Authorization", "Bearer " + githubToken)
+            .header("Accept", accept)
+            .GET()
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        int statusCode = response.statusCode();
+        if (statusCode == 404 || statusCode == 422 || statusCode == 429 || statusCode >= 500) {
+            log.warn("GitHub responded with [{}] to [{}], will retry", statusCode, request.uri());
+            return null;
+        }
+        if (statusCode >= 400) {
+            throw new IllegalStateException(
+                    "Unexpected GitHub response code [" + statusCode + "] for [" + request.uri() + "]");
+        }
+        return response.body();
+    }
+
+    record CommitStatus(String context, String state, @JsonProperty("created_at") String createdAt) {
+
+    }
+
+    record CheckRun(String name, String status, String conclusion, @JsonProperty("started_at") String startedAt) {
+
+    }
+
+}
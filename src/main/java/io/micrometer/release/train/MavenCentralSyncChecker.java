@@ -15,100 +15,246 @@
  */
 package io.micrometer.release.train;
 
+import io.micrometer.release.common.GradleParser;
+import io.micrometer.release.common.Input;
+import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Waits for released artifacts to get synced to Maven Central. Polls are asynchronous
+ * and waiting between them is done with delayed execution, so no thread is held while
+ * an artifact isn't there yet.
+ * <p>
+ * By default only the BOM of a project is checked. With all modules verification every
+ * module of the project that has a publication is checked, through its
+ * {@code maven-metadata.xml}. Modules already found aren't polled again.
+ * <p>
+ * Completing the returned future from the outside (e.g. cancelling it or timing it out)
+ * stops the polling.
+ */
 class MavenCentralSyncChecker {
 
     private static final Logger log = LoggerFactory.getLogger(MavenCentralSyncChecker.class);
 
-    private static final String CENTRAL_URL = "https://repo.maven.apache.org/maven2/io/micrometer/";
+    private static final String ALL_MODULES = "all-modules";
+
+    // The CDN in front of Maven Central can serve a cached 404 for a while after the sync,
+    // the origin and the CDN are probed at the same time and the first hit wins
+    private static final List<String> CENTRAL_URLS = List.of("https://repo.maven.apache.org/maven2/io/micrometer/",
+            "https://repo1.maven.org/maven2/io/micrometer/");
+
+    private static final Duration MAX_WAIT_TIME = Duration.ofMinutes(20);
+
+    // Short at first to notice the sync within seconds, HEAD requests are cheap
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
 
-    private static final int MAX_WAIT_TIME_MINUTES = 20;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
 
-    private static final int POLL_INTERVAL_SECONDS = 60;
+    // All versions of a train are released at once, don't let them poll in lockstep
+    private static final double JITTER = 0.5;
 
-    private static final int THREAD_POOL_SIZE = 5;
+    private final HttpClient httpClient;
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(THREAD_POOL_SIZE);
+    private final List<String> externalUrls;
 
-    private final String externalUrl;
+    // branch -> published modules of the project, null when only the BOM is checked
+    private final Function<String, List<String>> modulesOfBranch;
 
-    private final int maxWaitTimeInMs;
+    private final Duration maxWaitTime;
 
-    private final int pollIntervalInMs;
+    private final Duration initialBackoff;
 
-    MavenCentralSyncChecker() {
-        this.externalUrl = System.getenv("CENTRAL_URL") != null ? System.getenv("CENTRAL_URL") : CENTRAL_URL;
-        this.maxWaitTimeInMs = MAX_WAIT_TIME_MINUTES * 60 * 1000;
-        this.pollIntervalInMs = POLL_INTERVAL_SECONDS * 1000;
+    private final Duration maxBackoff;
+
+    MavenCentralSyncChecker(HttpClient httpClient, ProcessRunner processRunner, Git git) {
+        this(httpClient,
+                System.getenv("CENTRAL_URL") != null ? List.of(System.getenv("CENTRAL_URL").split(",")) : CENTRAL_URLS,
+                ALL_MODULES.equalsIgnoreCase(Input.getMavenCentralVerification())
+                        ? branch -> publishedModules(processRunner, git, branch) : null,
+                MAX_WAIT_TIME, INITIAL_BACKOFF, MAX_BACKOFF);
     }
 
     // for tests
-    MavenCentralSyncChecker(String externalUrl, int maxWaitTimeInMs, int pollIntervalInMs) {
-        this.externalUrl = externalUrl;
-        this.maxWaitTimeInMs = maxWaitTimeInMs;
-        this.pollIntervalInMs = pollIntervalInMs;
+    MavenCentralSyncChecker(HttpClient httpClient, String externalUrl, Duration maxWaitTime, Duration initialBackoff,
+            Duration maxBackoff) {
+        this(httpClient, List.of(externalUrl), null, maxWaitTime, initialBackoff, maxBackoff);
     }
 
-    void checkIfArtifactsAreInCentral(List<String> versions, ProjectSetup projectSetup) {
-        try {
-            List<CompletableFuture<Void>> mavenCheckTasks = versions.stream()
-                .map(s -> checkMavenCentralWithRetries(s, projectSetup))
+    // for tests
+    MavenCentralSyncChecker(HttpClient httpClient, List<String> externalUrls,
+            Function<String, List<String>> modulesOfBranch, Duration maxWaitTime, Duration initialBackoff,
+            Duration maxBackoff) {
+        this.httpClient = httpClient;
+        this.externalUrls = externalUrls.stream().map(String::trim).toList();
+        this.modulesOfBranch = modulesOfBranch;
+        this.maxWaitTime = maxWaitTime;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    // Branches are cloned when verifying dependencies
+    private static List<String> publishedModules(ProcessRunner processRunner, Git git, String branch) {
+        return new GradleParser(new ProcessRunner(processRunner, git.clonedDir(branch))).fetchPublishedSubprojects();
+    }
+
+    /**
+     * @param version released version
+     * @param branch branch the version was released from
+     * @param projectSetup released project
+     * @return completes once the version is available in Maven Central, cancel it to stop
+     * checking
+     */
+    CompletableFuture<Void> awaitInCentral(String version, String branch, ProjectSetup projectSetup) {
+        List<String> modules = modulesOfBranch != null ? modulesOfBranch.apply(branch) : List.of();
+        return modules.isEmpty() ? awaitArtifact(version, projectSetup) : awaitModules(version, modules);
+    }
+
+    private CompletableFuture<Void> awaitArtifact(String version, ProjectSetup projectSetup) {
+        String artifactPath = projectSetup.artifactToCheck() + "/" + version + "/";
+        log.info("Starting Maven Central sync check for version [{}] and path [{}] at {}. Will check for at most [{}]",
+                version, artifactPath, externalUrls, maxWaitTime);
+        return poll(version, () -> isAvailable(artifactPath, version));
+    }
+
+    private CompletableFuture<Void> awaitModules(String version, List<String> modules) {
+        log.info("Starting Maven Central sync check of modules {} for version [{}]. Will check for at most [{}]",
+                modules, version, maxWaitTime);
+        Set<String> missing = ConcurrentHashMap.newKeySet();
+        missing.addAll(modules);
+        return poll(version, () -> {
+            List<CompletableFuture<Void>> checks = missing.stream()
+                .map(module -> isInMetadata(module, version).thenAccept(found -> {
+                    if (found) {
+                        missing.remove(module);
+                    }
+                }))
                 .toList();
-            FutureUtility.waitForTasksToComplete(mavenCheckTasks);
-            log.info("Maven Central verification completed.");
-        }
-        finally {
-            scheduler.shutdown();
-        }
+            return CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).thenApply(checked -> {
+                if (!missing.isEmpty()) {
+                    log.info("[{}/{}] modules of version [{}] are in Maven Central, missing {}",
+                            modules.size() - missing.size(), modules.size(), version, new TreeSet<>(missing));
+                }
+                return missing.isEmpty();
+            });
+        });
+    }
+
+    private CompletableFuture<Void> poll(String version, Supplier<CompletableFuture<Boolean>> check) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + maxWaitTime.toNanos();
+        poll(version, check, deadline, new Backoff(initialBackoff, maxBackoff, JITTER), result);
+        return result;
     }
 
-    private CompletableFuture<Void> checkMavenCentralWithRetries(String version, ProjectSetup projectSetup) {
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        String mavenUrl = externalUrl + projectSetup.artifactToCheck() + "/" + version + "/";
-        log.info(
-                "Starting Maven Central sync check for version: [{}] and url [{}]. Will check for the artifact every [{}] ms for at most [{}] ms",
-                version, mavenUrl, pollIntervalInMs, maxWaitTimeInMs);
-        long startTime = System.currentTimeMillis();
-        long maxWaitTimeMillis = TimeUnit.SECONDS.toMillis(maxWaitTimeInMs);
-        final ScheduledFuture<?> scheduledFuture = scheduler.scheduleAtFixedRate(() -> {
-            if (System.currentTimeMillis() - startTime > maxWaitTimeMillis) {
-                log.error("Version {} not found in Maven Central after {} seconds.", version, maxWaitTimeInMs);
-                future.completeExceptionally(new IllegalStateException(
-                        "Version " + version + " not found in Maven Central after " + maxWaitTimeInMs + " seconds."));
+    private void poll(String version, Supplier<CompletableFuture<Boolean>> check, long deadline, Backoff backoff,
+            CompletableFuture<Void> result) {
+        if (result.isDone()) {
+            log.info("Stopped checking version [{}] in Maven Central", version);
+            return;
+        }
+        check.get().whenComplete((available, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
                 return;
             }
-            if (checkMavenCentral(mavenUrl, version)) {
-                log.info("Version {} is available in Maven Central.", version);
-                future.complete(null);
+            if (available) {
+                log.info("Version [{}] is available in Maven Central", version);
+                result.complete(null);
+                return;
             }
-            else {
-                log.info("Version {} not yet available. Retrying in {} seconds...", version, pollIntervalInMs);
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                log.error("Version [{}] not found in Maven Central within [{}]", version, maxWaitTime);
+                result.completeExceptionally(new IllegalStateException(
+                        "Version " + version + " not found in Maven Central within " + maxWaitTime));
+                return;
+            }
+            if (result.isDone()) {
+                log.info("Stopped checking version [{}] in Maven Central", version);
+                return;
             }
-        }, 0, pollIntervalInMs, TimeUnit.SECONDS);
-        future.whenComplete((result, throwable) -> scheduledFuture.cancel(true));
-        return future;
+            Duration wait = backoff.next();
+            log.info("Version [{}] not yet available, will check again in [{}]", version, wait);
+            Executor delayed = CompletableFuture.delayedExecutor(Math.min(wait.toNanos(), remainingNanos),
+                    TimeUnit.NANOSECONDS);
+            delayed.execute(() -> poll(version, check, deadline, backoff, result));
+        });
     }
 
-    private boolean checkMavenCentral(String mavenUrl, String version) {
-        try {
-            HttpURLConnection connection = (HttpURLConnection) new URI(mavenUrl).toURL().openConnection();
-            connection.setRequestMethod("HEAD");
-            int responseCode = connection.getResponseCode();
-            log.debug("Got response code [{}] from Maven Central", responseCode);
-            return responseCode != 404;
-        }
-        catch (Exception e) {
-            log.warn("Failed to verify Maven Central for version: {}. Retrying...", version, e);
-            return false;
-        }
+    private CompletableFuture<Boolean> isAvailable(String artifactPath, String version) {
+        return anyEndpoint(externalUrl -> isAvailable(URI.create(externalUrl + artifactPath), version));
+    }
+
+    private CompletableFuture<Boolean> isInMetadata(String module, String version) {
+        return anyEndpoint(externalUrl -> isInMetadata(URI.create(externalUrl + module + "/maven-metadata.xml"),
+                version));
+    }
+
+    // Completes with true as soon as any endpoint says so
+    private CompletableFuture<Boolean> anyEndpoint(Function<String, CompletableFuture<Boolean>> probe) {
+        CompletableFuture<Boolean> available = new CompletableFuture<>();
+        List<CompletableFuture<Boolean>> probes = externalUrls.stream().map(probe).toList();
+        probes.forEach(result -> result.thenAccept(found -> {
+            if (found) {
+                available.complete(true);
+            }
+        }));
+        CompletableFuture.allOf(probes.toArray(new CompletableFuture[0])).thenRun(() -> available.complete(false));
+        return available;
+    }
+
+    private CompletableFuture<Boolean> isAvailable(URI mavenUrl, String version) {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(mavenUrl)
+            .header("Cache-Control", "no-cache")
+            .header("Pragma", "no-cache")
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).handle((response, throwable) -> {
+            if (throwable != null) {
+                log.warn("Failed to verify [{}] for version [{}], will retry", mavenUrl, version, throwable);
+                return false;
+            }
+            log.debug("Got response code [{}] from [{}]", response.statusCode(), mavenUrl);
+            // Errors of Maven Central don't mean the artifact is there
+            return response.statusCode() >= 200 && response.statusCode() < 300;
+        });
+    }
+
+    private CompletableFuture<Boolean> isInMetadata(URI metadataUrl, String version) {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(metadataUrl)
+            .header("Cache-Control", "no-cache")
+            .header("Pragma", "no-cache")
+            .GET()
+            .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).handle((response, throwable) -> {
+            if (throwable != null) {
+                log.warn("Failed to read [{}] for version [{}], will retry", metadataUrl, version, throwable);
+                return false;
+            }
+            log.debug("Got response code [{}] from [{}]", response.statusCode(), metadataUrl);
+            // A module released for the first time has no metadata until it's synced
+            return response.statusCode() >= 200 && response.statusCode() < 300
+                    && response.body().contains("<version>" + version + "</version>");
+        });
     }
 
 }
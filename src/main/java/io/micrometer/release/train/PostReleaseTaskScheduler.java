@@ -15,11 +15,21 @@
  */
 package io.micrometer.release.train;
 
+import io.micrometer.release.common.Input;
+import io.micrometer.release.common.Version;
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,30 +38,195 @@ class PostReleaseTaskScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(PostReleaseTaskScheduler.class);
 
+    private static final int DEFAULT_MAX_CONCURRENT_VERSIONS = 3;
+
     private final PostReleaseWorkflow postReleaseWorkflow;
 
     private final Git git;
 
+    private final int maxConcurrentVersions;
+
+    private final ReentrantLock worktreeLock = new ReentrantLock();
+
     PostReleaseTaskScheduler(PostReleaseWorkflow postReleaseWorkflow, Git git) {
+        this(postReleaseWorkflow, git, maxConcurrentVersions());
+    }
+
+    // for tests
+    PostReleaseTaskScheduler(PostReleaseWorkflow postReleaseWorkflow, Git git, int maxConcurrentVersions) {
         this.postReleaseWorkflow = postReleaseWorkflow;
         this.git = git;
+        this.maxConcurrentVersions = maxConcurrentVersions;
     }
 
-    void runPostReleaseTasks(List<String> versions) {
-        List<String> sortedVersions = new ArrayList<>(versions);
-        sortedVersions.sort(Comparator.comparing(PostReleaseTaskScheduler::extractMajorMinorVersion));
-        String previousVersion = null;
-        for (String version : sortedVersions) {
-            git.changeTag("v" + version);
-            log.info("Running post release task for version [{}] and previous version [{}]", version, previousVersion);
-            postReleaseWorkflow.run("v" + version, previousVersion != null ? ("v" + previousVersion) : null);
-            previousVersion = version;
+    /**
+     * Runs the post-release tasks of every version as soon as it's released, without
+     * waiting for the other versions. The only cross-version constraint is the release
+     * notes of the previous version, which the changelog of a version refers to.
+     * @param releasedVersions versions with futures that complete once the version is
+     * released, a failed release fails its post-release tasks
+     * @param trainNotifications collects the notifications of the released versions
+     */
+    void runPostReleaseTasks(Map<String, CompletableFuture<Void>> releasedVersions,
+            TrainNotifications trainNotifications) {
+        List<String> sortedVersions = new ArrayList<>(releasedVersions.keySet());
+        sortedVersions.sort(Comparator.comparing(Version::parse));
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        VersionPermits permits = new VersionPermits(maxConcurrentVersions, sortedVersions.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Void> previousReleaseNotes = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < sortedVersions.size(); i++) {
+                int index = i;
+                String version = sortedVersions.get(i);
+                String previousRef = i > 0 ? ("v" + sortedVersions.get(i - 1)) : null;
+                CompletableFuture<Void> previous = previousReleaseNotes;
+                CompletableFuture<Void> releaseNotes = new CompletableFuture<>();
+                CompletableFuture<Void> task = releasedVersions.get(version)
+                    .thenCompose(released -> FutureUtility.withStageTimeout(CompletableFuture.runAsync(() -> {
+                        permits.acquire(index);
+                        try {
+                            runPostReleaseTask(version, previousRef, previous, releaseNotes, trainNotifications);
+                        }
+                        finally {
+                            permits.release();
+                        }
+                    }, executor)));
+                // Versions that depend on a failed one must not wait for its release notes
+                tasks.add(task.whenComplete((result, throwable) -> {
+                    permits.markStarted(index);
+                    if (throwable != null) {
+                        releaseNotes.completeExceptionally(throwable);
+                    }
+                }));
+                previousReleaseNotes = releaseNotes;
+            }
+            FutureUtility.waitForTasksToComplete(tasks);
         }
         log.info("All post-release actions completed!");
     }
 
-    private static String extractMajorMinorVersion(String version) {
-        return version.substring(0, version.lastIndexOf('.'));
+    private void runPostReleaseTask(String version, String previousRef, CompletableFuture<Void> previousReleaseNotes,
+            CompletableFuture<Void> releaseNotes, TrainNotifications trainNotifications) {
+        File worktree = addWorktree(version);
+        Throwable failure = null;
+        try {
+            log.info("Running post release task for version [{}] and previous version [{}]", version, previousRef);
+            postReleaseWorkflow.inDirectory(worktree)
+                .run("v" + version, previousRef, previousReleaseNotes, releaseNotes, trainNotifications);
+        }
+        catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        }
+        finally {
+            removeWorktree(worktree, failure);
+        }
+    }
+
+    // A failed cleanup must not hide why the post-release task failed
+    private void removeWorktree(File worktree, Throwable failure) {
+        try {
+            git.removeWorktree(worktree);
+        }
+        catch (RuntimeException e) {
+            if (failure != null) {
+                failure.addSuppressed(e);
+            }
+            else {
+                log.warn("Failed to remove worktree [{}]", worktree.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    // Worktrees share the repository, so they are added one by one
+    private File addWorktree(String version) {
+        worktreeLock.lock();
+        try {
+            return git.addWorktree("v" + version);
+        }
+        finally {
+            worktreeLock.unlock();
+        }
+    }
+
+    // Without a permit no version is ever processed, so less than one is rejected
+    private static int maxConcurrentVersions() {
+        Integer maxConcurrentVersions = Input.positiveNumber("POST_RELEASE_CONCURRENCY",
+                Input.getPostReleaseConcurrency());
+        return maxConcurrentVersions != null ? maxConcurrentVersions : DEFAULT_MAX_CONCURRENT_VERSIONS;
+    }
+
+    /**
+     * Limits the number of versions processed at the same time. A version waits for the
+     * release notes of the previous ones, so only a version whose lower versions all
+     * started can take the last permit. Otherwise versions released out of order could
+     * take all of them while waiting for a version that never gets one.
+     */
+    private static class VersionPermits {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition changed = lock.newCondition();
+
+        private final boolean[] started;
+
+        private int available;
+
+        private int lowestUnstarted;
+
+        VersionPermits(int permits, int versions) {
+            this.available = permits;
+            this.started = new boolean[versions];
+        }
+
+        void acquire(int index) {
+            lock.lock();
+            try {
+                while (available == 0 || (available == 1 && index > lowestUnstarted)) {
+                    changed.await();
+                }
+                available--;
+                markStartedLocked(index);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                available++;
+                changed.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        // Also called for versions that failed before getting a permit
+        void markStarted(int index) {
+            lock.lock();
+            try {
+                markStartedLocked(index);
+                changed.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private void markStartedLocked(int index) {
+            started[index] = true;
+            while (lowestUnstarted < started.length && started[lowestUnstarted]) {
+                lowestUnstarted++;
+            }
+        }
+
     }
 
 }
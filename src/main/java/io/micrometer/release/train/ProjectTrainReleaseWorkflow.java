@@ -15,23 +15,26 @@
  */
 package io.micrometer.release.train;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.micrometer.release.common.Input;
+import io.micrometer.release.common.GithubPaginator;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.common.ReleaseHttpClient;
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
 
 import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
-public class ProjectTrainReleaseWorkflow {
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-    private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+public class ProjectTrainReleaseWorkflow {
 
-    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
-        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Logger log = LoggerFactory.getLogger(ProjectTrainReleaseWorkflow.class);
 
     private final ReleaseScheduler releaseScheduler;
 
@@ -41,30 +44,111 @@ public class ProjectTrainReleaseWorkflow {
 
     private final MavenCentralSyncChecker mavenCentralSyncChecker;
 
+    // Sends the notifications when the project isn't released as part of a bigger train
+    private final TrainNotifications projectNotifications;
+
     public ProjectTrainReleaseWorkflow(ProcessRunner processRunner, PostReleaseWorkflow postReleaseWorkflow) {
-        this.releaseScheduler = new ReleaseScheduler(new CircleCiChecker(System.getenv("CIRCLE_CI_TOKEN"),
-                processRunner.getOrgRepo(), HTTP_CLIENT, OBJECT_MAPPER), OBJECT_MAPPER, processRunner);
-        this.versionToBranchConverter = new VersionToBranchConverter(Input.getGhToken(),
-                "https://api.github.com/repos/" + processRunner.getOrgRepo() + "/branches/", HTTP_CLIENT);
-        this.postReleaseTaskScheduler = new PostReleaseTaskScheduler(postReleaseWorkflow, new Git(processRunner));
-        this.mavenCentralSyncChecker = new MavenCentralSyncChecker();
+        this.releaseScheduler = new ReleaseScheduler(BuildStatusChecker.forProject(processRunner.getOrgRepo()),
+                processRunner);
+        HttpClient httpClient = ReleaseHttpClient.shared();
+        this.versionToBranchConverter = new VersionToBranchConverter(new GithubPaginator(),
+                processRunner.getOrgRepo());
+        Git git = new Git(processRunner);
+        this.postReleaseTaskScheduler = new PostReleaseTaskScheduler(postReleaseWorkflow, git);
+        this.mavenCentralSyncChecker = new MavenCentralSyncChecker(httpClient, processRunner, git);
+        this.projectNotifications = new TrainNotifications();
     }
 
     // For tests
     ProjectTrainReleaseWorkflow(ReleaseScheduler releaseScheduler, VersionToBranchConverter versionToBranchConverter,
-            PostReleaseTaskScheduler postReleaseTaskScheduler, MavenCentralSyncChecker mavenCentralSyncChecker) {
+            PostReleaseTaskScheduler postReleaseTaskScheduler, MavenCentralSyncChecker mavenCentralSyncChecker,
+            TrainNotifications projectNotifications) {
         this.releaseScheduler = releaseScheduler;
         this.versionToBranchConverter = versionToBranchConverter;
         this.postReleaseTaskScheduler = postReleaseTaskScheduler;
         this.mavenCentralSyncChecker = mavenCentralSyncChecker;
+        this.projectNotifications = projectNotifications;
     }
 
     public void run(ProjectSetup projectSetup) {
+        run(projectSetup, null);
+    }
+
+    /**
+     * Releases the project as part of a bigger train. Every version flows through release
+     * and CI, post-release tasks and the Maven Central check on its own, so a version
+     * doesn't wait for the CI builds of the other versions.
+     * @param projectSetup project to release
+     * @param trainNotifications collects the notifications of the released versions, the
+     * caller sends them once the whole train is done. When {@code null} the
+     * notifications are sent once the versions of this project are post-processed.
+     */
+    public void run(ProjectSetup projectSetup, TrainNotifications trainNotifications) {
+        run(projectSetup, trainNotifications, version -> CompletableFuture.completedFuture(null), Map.of());
+    }
+
+    /**
+     * Releases the project as part of a meta train, where versions of different projects
+     * depend on each other.
+     * @param projectSetup project to release
+     * @param trainNotifications collects the notifications of the released versions
+     * @param dependenciesInCentral gives a future per version that completes once the
+     * dependencies of the version are available in Maven Central, the version is released
+     * only then
+     * @param inCentral futures per version that get completed once the version is
+     * available in Maven Central, or completed exceptionally when the version failed
+     */
+    public void run(ProjectSetup projectSetup, TrainNotifications trainNotifications,
+            Function<String, CompletableFuture<Void>> dependenciesInCentral,
+            Map<String, CompletableFuture<Void>> inCentral) {
         List<String> versions = projectSetup.versionsForThisProject();
         Map<String, String> versionToBranch = versionToBranchConverter.convert(versions);
-        releaseScheduler.runReleaseAndCheckCi(versionToBranch, projectSetup);
-        postReleaseTaskScheduler.runPostReleaseTasks(versions);
-        mavenCentralSyncChecker.checkIfArtifactsAreInCentral(versions, projectSetup);
+        Map<String, CompletableFuture<Void>> releasedVersions = new LinkedHashMap<>();
+        versionToBranch.forEach((version, branch) -> releasedVersions.put(version,
+                dependenciesInCentral.apply(version)
+                    .thenCompose(ignored -> releaseScheduler.releaseAndCheckCi(version, branch, projectSetup))));
+        // Maven Central doesn't need the post-release tasks, it's checked right after CI
+        List<CompletableFuture<Void>> centralChecks = releasedVersions.entrySet()
+            .stream()
+            .map(released -> {
+                CompletableFuture<Void> centralCheck = released.getValue()
+                    .thenCompose(ignored -> FutureUtility.withStageTimeout(mavenCentralSyncChecker
+                        .awaitInCentral(released.getKey(), versionToBranch.get(released.getKey()), projectSetup)));
+                centralCheck.whenComplete((result, throwable) -> {
+                    CompletableFuture<Void> versionInCentral = inCentral.get(released.getKey());
+                    if (versionInCentral == null) {
+                        return;
+                    }
+                    if (throwable != null) {
+                        versionInCentral.completeExceptionally(throwable);
+                    }
+                    else {
+                        versionInCentral.complete(null);
+                    }
+                });
+                return centralCheck;
+            })
+            .toList();
+        try {
+            if (trainNotifications != null) {
+                postReleaseTaskScheduler.runPostReleaseTasks(releasedVersions, trainNotifications);
+            }
+            else {
+                projectNotifications.sendAfter(
+                        () -> postReleaseTaskScheduler.runPostReleaseTasks(releasedVersions, projectNotifications));
+            }
+        }
+        catch (RuntimeException e) {
+            // Versions that did get released are still checked, otherwise versions that
+            // depend on them in a meta train would fail too. The checks end on their own,
+            // failed versions fail theirs right away.
+            CompletableFuture.allOf(centralChecks.toArray(new CompletableFuture[0]))
+                .exceptionally(failedVersion -> null)
+                .join();
+            throw e;
+        }
+        FutureUtility.waitForTasksToComplete(centralChecks);
+        log.info("All versions released, post-processed and synced to Maven Central.");
     }
 
 }
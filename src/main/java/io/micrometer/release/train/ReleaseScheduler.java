@@ -15,56 +15,68 @@
  */
 package io.micrometer.release.train;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.release.common.GithubReleasesClient;
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class ReleaseScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(ReleaseScheduler.class);
 
-    private final CircleCiChecker circleCiChecker;
+    // Waiting for CI takes up to half an hour, every version of the train gets its own
+    // thread for that instead of a slot in the common pool
+    private static final ExecutorService RELEASE_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final BuildStatusChecker buildStatusChecker;
 
     private final ProcessRunner processRunner;
 
     private final DependencyVerifier dependencyVerifier;
 
-    ReleaseScheduler(CircleCiChecker circleCiChecker, ObjectMapper objectMapper, ProcessRunner processRunner) {
-        this.circleCiChecker = circleCiChecker;
+    private final GithubReleasesClient githubReleasesClient;
+
+    ReleaseScheduler(BuildStatusChecker buildStatusChecker, ProcessRunner processRunner) {
+        this.buildStatusChecker = buildStatusChecker;
         this.processRunner = processRunner;
-        this.dependencyVerifier = new DependencyVerifier(processRunner, objectMapper);
+        this.dependencyVerifier = new DependencyVerifier(processRunner);
+        this.githubReleasesClient = new GithubReleasesClient();
     }
 
     // for tests
-    ReleaseScheduler(CircleCiChecker circleCiChecker, ProcessRunner processRunner,
-            DependencyVerifier dependencyVerifier) {
-        this.circleCiChecker = circleCiChecker;
+    ReleaseScheduler(BuildStatusChecker buildStatusChecker, ProcessRunner processRunner,
+            DependencyVerifier dependencyVerifier, GithubReleasesClient githubReleasesClient) {
+        this.buildStatusChecker = buildStatusChecker;
         this.processRunner = processRunner;
         this.dependencyVerifier = dependencyVerifier;
+        this.githubReleasesClient = githubReleasesClient;
     }
 
-    void runReleaseAndCheckCi(Map<String, String> versionToBranch, ProjectSetup projectSetup) {
-        List<CompletableFuture<Void>> releaseTasks = versionToBranch.entrySet()
-            .stream()
-            .map(entry -> CompletableFuture
-                .runAsync(() -> handleReleaseAndCI(entry.getKey(), entry.getValue(), projectSetup)))
-            .toList();
-        FutureUtility.waitForTasksToComplete(releaseTasks);
-        log.info("All releases created and CI checks completed successfully.");
+    /**
+     * Starts the release of a single version. Verifying the dependencies and releasing
+     * (including the wait for CI) are separate stages with their own timeouts.
+     * @return completes once the version is released and its CI build passed
+     */
+    CompletableFuture<Void> releaseAndCheckCi(String version, String branch, ProjectSetup projectSetup) {
+        return FutureUtility
+            .runWithStageTimeout(
+                    () -> dependencyVerifier.verifyDependencies(branch, processRunner.getOrgRepo(), projectSetup),
+                    RELEASE_EXECUTOR)
+            .thenCompose(verified -> FutureUtility.runWithStageTimeout(() -> handleReleaseAndCI(version, branch),
+                    RELEASE_EXECUTOR))
+            .thenRun(() -> log.info("Version [{}] released and its CI checks completed successfully.", version));
     }
 
-    private void handleReleaseAndCI(String version, String branch, ProjectSetup projectSetup) {
+    private void handleReleaseAndCI(String version, String branch) {
         try {
-            dependencyVerifier.verifyDependencies(branch, processRunner.getOrgRepo(), projectSetup);
             createGithubRelease(version, branch);
-            boolean buildSuccessful = circleCiChecker.checkBuildStatus(version);
+            boolean buildSuccessful = buildStatusChecker.checkBuildStatus(version);
             if (!buildSuccessful) {
                 throw new IllegalStateException("Build failed for version: " + version);
             }
@@ -74,9 +86,9 @@ class ReleaseScheduler {
         }
     }
 
-    private void createGithubRelease(String version, String branch) throws IOException, InterruptedException {
+    private void createGithubRelease(String version, String branch) {
         log.info("Creating GitHub release for version: [{}]  from branch: [{}]", version, branch);
-        processRunner.run("gh", "release", "create", "v" + version, "--target", branch, "-t", version);
+        githubReleasesClient.createRelease(processRunner.getOrgRepo(), "v" + version, branch, version);
     }
 
 }
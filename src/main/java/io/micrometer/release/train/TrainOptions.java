@@ -228,6 +228,18 @@ public class TrainOptions {
             return this.thisProject.get(0).project.projectDefinition.artifactId;
         }
 
+        /**
+         * @param version version of this project
+         * @return projects and versions that the given version of this project depends on
+         */
+        public List<ProjectVersion> dependenciesOf(String version) {
+            return this.thisProject.stream()
+                .filter(p -> version.equals(p.getProject().getProjectVersion()))
+                .flatMap(p -> p.getDependencies().stream())
+                .map(dependency -> new ProjectVersion(dependency.projectDefinition.orgRepo, dependency.version))
+                .toList();
+        }
+
         public Set<io.micrometer.release.common.Dependency> expectedDependencies() {
             return this.thisProject.stream()
                 .flatMap(p -> p.getDependencies().stream())
@@ -363,7 +375,7 @@ public class TrainOptions {
         }
 
         Tracing with(String contextPropagationVersion, String micrometerVersion) {
-            return new Tracing(getProjectVersion(), contextPropagationVersion, micrometerVersion);
+            return new Tracing(getProjectVersion(), micrometerVersion, contextPropagationVersion);
         }
 
     }
@@ -395,7 +407,7 @@ public class TrainOptions {
         }
 
         DocsGen with(String micrometerVersion, String tracingVersion) {
-            return new DocsGen(getProjectVersion(), tracingVersion, micrometerVersion);
+            return new DocsGen(getProjectVersion(), micrometerVersion, tracingVersion);
         }
 
     }
@@ -480,6 +492,10 @@ public class TrainOptions {
 
     }
 
+    public record ProjectVersion(String ghOrgRepo, String version) {
+
+    }
+
     record SplitProjects(String[] contextP, String[] micrometer, String[] tracing, String[] docsGen) {
 
         @Override
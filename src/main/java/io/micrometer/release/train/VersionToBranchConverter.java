@@ -13,55 +13,52 @@
  */
 package io.micrometer.release.train;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.release.common.GithubPaginator;
+import io.micrometer.release.common.JsonCodec;
+import io.micrometer.release.common.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class VersionToBranchConverter {
 
     private static final Logger log = LoggerFactory.getLogger(VersionToBranchConverter.class);
 
-    private final String githubToken;
+    private static final int BRANCHES_PER_PAGE = 100;
 
-    private final String githubApiBranchUrl;
+    private final GithubPaginator githubPaginator;
 
-    private final HttpClient httpClient;
+    private final String githubOrgRepo;
 
-    VersionToBranchConverter(String githubToken, String githubApiBranchUrl, HttpClient httpClient) {
-        this.githubToken = githubToken;
-        this.githubApiBranchUrl = githubApiBranchUrl;
-        this.httpClient = httpClient;
+    // Listed once per converter, i.e. once per released project
+    private Set<String> branches;
+
+    VersionToBranchConverter(GithubPaginator githubPaginator, String githubOrgRepo) {
+        this.githubPaginator = githubPaginator;
+        this.githubOrgRepo = githubOrgRepo;
     }
 
     Map<String, String> convert(List<String> versions) {
+        Set<String> branches = branches();
         Map<String, String> versionsToBranches = new HashMap<>();
-        try {
-            for (String version : versions) {
-                String branch = branchOrMainIfBranchMissing(version);
-                versionsToBranches.put(version, branch);
-            }
-        }
-        catch (Exception e) {
-            throw new IllegalStateException(e);
+        for (String version : versions) {
+            versionsToBranches.put(version, branchOrMainIfBranchMissing(version, branches));
         }
         log.info("Matched versions to branches {}", versionsToBranches);
         return versionsToBranches;
     }
 
-    private String branchOrMainIfBranchMissing(String version) throws IOException, InterruptedException {
+    private String branchOrMainIfBranchMissing(String version, Set<String> branches) {
         log.info("Will determine what branch to search for for version [{}]", version);
-        // 1.2.3-M2 -> 1.2
-        String majorMinor = version.substring(0, version.lastIndexOf('.'));
-        String potentialBranch = majorMinor + ".x";
-        if (doesBranchExist(potentialBranch)) {
+        // 1.2.3-M2 -> 1.2.x
+        String potentialBranch = Version.parse(version).majorMinor() + ".x";
+        if (branches.contains(potentialBranch)) {
             log.info("Branch [{}] exists", potentialBranch);
             return potentialBranch;
         }
@@ -71,18 +68,19 @@ class VersionToBranchConverter {
         }
     }
 
-    private boolean doesBranchExist(String branch) throws IOException, InterruptedException {
-        String branchUrl = githubApiBranchUrl + branch;
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(branchUrl))
-            .header("Authorization", "Bearer " + githubToken)
-            .header("Accept", "application/vnd.github.v3+json")
-            .build();
-        log.info("Will send a GET request to {}", branchUrl);
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        log.info("Got the following response status code: {}", response.statusCode());
-        // log.info("Got the following response: {}", response.body());
-        return response.statusCode() == 200;
+    private synchronized Set<String> branches() {
+        if (branches == null) {
+            Set<String> listed = new HashSet<>();
+            githubPaginator.fetchPages("/repos/" + githubOrgRepo + "/branches?per_page=" + BRANCHES_PER_PAGE,
+                    page -> JsonCodec.readArray(page, Branch.class).stream().map(Branch::name).forEach(listed::add));
+            log.info("Found [{}] branches of [{}]", listed.size(), githubOrgRepo);
+            branches = listed;
+        }
+        return branches;
+    }
+
+    record Branch(@JsonProperty("name") String name) {
+
     }
 
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class GithubPaginatorTests {
+
+    @RegisterExtension
+    static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+    GithubPaginator paginator = new GithubPaginator(HttpClient.newHttpClient(), wm1.baseUrl(), "foo", 2);
+
+    @Test
+    void should_return_single_page_when_there_is_no_link_header() {
+        wm1.stubFor(get(urlEqualTo("/repos/micrometer-metrics/micrometer/milestones?per_page=100"))
+            .withHeader("Authorization", equalTo("Bearer foo"))
+            .willReturn(okJson("[{\"number\":1}]")));
+        List<String> pages = new ArrayList<>();
+
+        paginator.fetchPages("/repos/micrometer-metrics/micrometer/milestones?per_page=100", pages::add);
+
+        then(pages).containsExactly("[{\"number\":1}]");
+    }
+
+    @Test
+    void should_fetch_remaining_pages_and_return_them_in_order() {
+        String path = "/repos/micrometer-metrics/micrometer/issues?milestone=5&state=closed&per_page=100";
+        wm1.stubFor(get(urlEqualTo(path)).willReturn(okJson("[1]").withHeader("Link",
+                "<" + wm1.url(path + "&page=2") + ">; rel=\"next\", <" + wm1.url(path + "&page=5")
+                        + ">; rel=\"last\"")));
+        // earlier pages answer slower so that they complete after the later ones
+        for (int page = 2; page <= 5; page++) {
+            wm1.stubFor(get(urlEqualTo(path + "&page=" + page))
+                .willReturn(okJson("[" + page + "]").withFixedDelay((6 - page) * 50)));
+        }
+        List<String> pages = new ArrayList<>();
+
+        paginator.fetchPages(path, pages::add);
+
+        then(pages).containsExactly("[1]", "[2]", "[3]", "[4]", "[5]");
+        for (int page = 2; page <= 5; page++) {
+            wm1.verify(1, getRequestedFor(urlEqualTo(path + "&page=" + page)));
+        }
+    }
+
+    @Test
+    void should_throw_exception_when_a_page_cannot_be_fetched() {
+        String path = "/repos/micrometer-metrics/tracing/milestones?per_page=100";
+        wm1.stubFor(get(urlEqualTo(path))
+            .willReturn(okJson("[]").withHeader("Link", "<" + wm1.url(path + "&page=2") + ">; rel=\"last\"")));
+        wm1.stubFor(get(urlEqualTo(path + "&page=2")).willReturn(serverError()));
+
+        thenThrownBy(() -> paginator.fetchPages(path, page -> {
+        })).isInstanceOf(IllegalStateException.class).hasMessageContaining("status code [500]");
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.release.common.GithubReleasesClient.Release;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.net.http.HttpClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class GithubReleasesClientTests {
+
+    private static final String RELEASES_URL = "/repos/micrometer-metrics/micrometer/releases";
+
+    @RegisterExtension
+    static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+    GithubReleasesClient client = new GithubReleasesClient(HttpClient.newHttpClient(), wm1.baseUrl(), "foo");
+
+    @Test
+    void should_create_release() {
+        wm1.stubFor(post(RELEASES_URL).willReturn(created().withBody("{\"id\":1}")));
+
+        client.createRelease("micrometer-metrics/micrometer", "v1.14.9", "1.14.x", "1.14.9");
+
+        wm1.verify(postRequestedFor(urlEqualTo(RELEASES_URL)).withHeader("Authorization", equalTo("Bearer foo"))
+            .withRequestBody(
+                    equalToJson("{\"tag_name\":\"v1.14.9\",\"target_commitish\":\"1.14.x\",\"name\":\"1.14.9\"}")));
+    }
+
+    @Test
+    void should_get_release_by_tag() {
+        wm1.stubFor(get(RELEASES_URL + "/tags/v1.14.9")
+            .willReturn(okJson("{\"id\":7,\"tag_name\":\"v1.14.9\",\"body\":\"## Notes\",\"draft\":false}")));
+
+        Release release = client.getRelease("micrometer-metrics/micrometer", "v1.14.9");
+
+        then(release).isEqualTo(new Release(7, "v1.14.9", "## Notes"));
+    }
+
+    @Test
+    void should_update_release_notes_when_they_changed() {
+        wm1.stubFor(get(RELEASES_URL + "/tags/v1.14.9")
+            .willReturn(okJson("{\"id\":7,\"tag_name\":\"v1.14.9\",\"body\":\"## Old notes\"}")));
+        wm1.stubFor(patch(urlEqualTo(RELEASES_URL + "/7")).willReturn(okJson("{\"id\":7}")));
+
+        boolean updated = client.updateReleaseNotes("micrometer-metrics/micrometer", "v1.14.9", "## New notes");
+
+        then(updated).isTrue();
+        wm1.verify(patchRequestedFor(urlEqualTo(RELEASES_URL + "/7"))
+            .withRequestBody(equalToJson("{\"body\":\"## New notes\"}")));
+    }
+
+    @Test
+    void should_not_update_release_notes_when_they_did_not_change() {
+        wm1.stubFor(get(RELEASES_URL + "/tags/v1.14.9")
+            .willReturn(okJson("{\"id\":7,\"tag_name\":\"v1.14.9\",\"body\":\"## Notes\\r\\n\\r\\n- Foo\\r\\n\"}")));
+
+        boolean updated = client.updateReleaseNotes("micrometer-metrics/micrometer", "v1.14.9", "## Notes\n\n- Foo");
+
+        then(updated).isFalse();
+        wm1.verify(0, patchRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void should_throw_exception_when_request_fails() {
+        wm1.stubFor(get(RELEASES_URL + "/tags/v0.0.1").willReturn(notFound()));
+
+        thenThrownBy(() -> client.getRelease("micrometer-metrics/micrometer", "v0.0.1"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("status code [404]");
+    }
+
+}
@@ -14,6 +14,7 @@
 package io.micrometer.release.common;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -63,6 +64,20 @@ class GradleParserTests {
         verify(runner).runSilently(List.of("./gradlew", "projects"));
     }
 
+    @Test
+    void should_fetch_published_subprojects() {
+        given(runner.runSilently(List.of("./gradlew", "publishToMavenLocal", "--dry-run"))).willReturn(List.of(
+                ":micrometer-core:compileJava SKIPPED", ":micrometer-core:generatePomFileForNebulaPublication SKIPPED",
+                ":micrometer-core:publishNebulaPublicationToMavenLocal SKIPPED",
+                ":micrometer-bom:publishNebulaPublicationToMavenLocal SKIPPED",
+                ":micrometer-bom:publishPluginMavenPublicationToMavenLocal SKIPPED",
+                ":micrometer-samples-core:compileJava SKIPPED", ":docs:compileJava SKIPPED",
+                ":publishToMavenLocal SKIPPED"));
+
+        then(new GradleParser(runner).fetchPublishedSubprojects()).containsExactly("micrometer-core",
+                "micrometer-bom");
+    }
+
     @Test
     void should_get_subprojects_with_single_quote_in_description() {
         var projectLines = List.of(
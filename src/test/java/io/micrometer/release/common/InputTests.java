@@ -15,9 +15,12 @@
  */
 package io.micrometer.release.common;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 
 class InputTests {
@@ -35,4 +38,20 @@ class InputTests {
             .hasMessageContaining(expectedErrorMsg);
     }
 
+    @Test
+    void should_parse_positive_numbers() {
+        then(Input.positiveNumber("POST_RELEASE_CONCURRENCY", " 4 ")).isEqualTo(4);
+        then(Input.positiveNumber("POST_RELEASE_CONCURRENCY", " ")).isNull();
+        then(Input.positiveNumber("POST_RELEASE_CONCURRENCY", null)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "-1", "three", "1.5" })
+    void should_reject_values_that_are_not_positive_numbers(String value) {
+        thenThrownBy(() -> Input.positiveNumber("POST_RELEASE_CONCURRENCY", value))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("The POST_RELEASE_CONCURRENCY env variable must be a whole number of at least 1 but was ["
+                    + value + "]");
+    }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class JsonCodecTests {
+
+    @Test
+    void should_read_only_declared_fields() {
+        Item item = JsonCodec.read("{\"id\":1,\"name\":\"foo\",\"ignored\":{\"nested\":[1,2]}}", Item.class);
+
+        then(item).isEqualTo(new Item(1, "foo"));
+    }
+
+    @Test
+    void should_read_top_level_array() {
+        then(JsonCodec.readArray("[{\"id\":1,\"name\":\"foo\"},{\"id\":2}]", Item.class))
+            .containsExactly(new Item(1, "foo"), new Item(2, null));
+    }
+
+    @Test
+    void should_read_array_of_a_field_and_skip_the_rest() {
+        String json = """
+                {"total_count": 2, "other": [{"id": 9}], "nested": {"items": [{"id": 8}]},
+                 "items": [{"id": 1, "name": "foo", "extra": {"a": [1]}}, {"id": 2, "name": "bar"}]}
+                """;
+
+        then(JsonCodec.readArray(json, "items", Item.class)).containsExactly(new Item(1, "foo"), new Item(2, "bar"));
+        then(JsonCodec.readArray(json, "missing", Item.class)).isEmpty();
+    }
+
+    @Test
+    void should_read_nested_text() {
+        String json = "{\"uri\":\"at://foo\",\"commit\":{\"cid\":\"bar\",\"rev\":\"3l\"},\"accessJwt\":\"jwt\"}";
+
+        then(JsonCodec.readText(json, "commit", "rev")).isEqualTo("3l");
+        then(JsonCodec.readText(json, "accessJwt")).isEqualTo("jwt");
+        then(JsonCodec.readText(json, "commit")).isNull();
+        then(JsonCodec.readText(json, "commit", "missing")).isNull();
+    }
+
+    @Test
+    void should_write_json() {
+        then(JsonCodec.write(Map.of("tag_name", "v1.0.0"))).isEqualTo("{\"tag_name\":\"v1.0.0\"}");
+    }
+
+    @Test
+    void should_fail_on_invalid_json() {
+        thenThrownBy(() -> JsonCodec.read("{", Item.class)).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Item");
+    }
+
+    record Item(int id, String name) {
+
+    }
+
+}
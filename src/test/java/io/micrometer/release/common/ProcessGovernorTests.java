@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class ProcessGovernorTests {
+
+    ProcessGovernor governor = new ProcessGovernor(2);
+
+    @Test
+    void should_treat_gradle_builds_and_clones_as_heavy() {
+        then(ProcessGovernor.isHeavy(new String[] { "./gradlew", "projects" })).isTrue();
+        then(ProcessGovernor.isHeavy(new String[] { "gradle", "build" })).isTrue();
+        then(ProcessGovernor.isHeavy(new String[] { "git", "clone", "https://github.com/foo/bar" })).isTrue();
+        then(ProcessGovernor.isHeavy(new String[] { "gh", "repo", "clone", "foo/bar", "main" })).isTrue();
+
+        then(ProcessGovernor.isHeavy(new String[] { "git", "pull" })).isFalse();
+        then(ProcessGovernor.isHeavy(new String[] { "gh", "api", "/repos/foo/bar" })).isFalse();
+        then(ProcessGovernor.isHeavy(new String[] { "touch", "foo" })).isFalse();
+    }
+
+    @Test
+    void should_limit_concurrent_heavy_commands() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> builds = IntStream.range(0, 6)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> build(running, maxRunning), executor))
+                .toList();
+            CompletableFuture.allOf(builds.toArray(new CompletableFuture[0])).join();
+        }
+
+        then(maxRunning).hasValue(2);
+    }
+
+    @Test
+    void should_not_throttle_light_commands() throws InterruptedException {
+        CountDownLatch heavyStarted = new CountDownLatch(2);
+        CountDownLatch lightDone = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2; i++) {
+                executor.submit(() -> governor.run(new String[] { "./gradlew", "build" }, () -> {
+                    heavyStarted.countDown();
+                    return await(lightDone);
+                }));
+            }
+            then(heavyStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // the heavy commands hold all permits until the light one is done
+            then(CompletableFuture.supplyAsync(() -> governor.run(new String[] { "git", "pull" }, () -> "pulled")))
+                .succeedsWithin(Duration.ofSeconds(1))
+                .isEqualTo("pulled");
+            lightDone.countDown();
+        }
+    }
+
+    @Test
+    void should_take_configured_limit_or_compute_one_of_at_least_one() {
+        then(ProcessGovernor.maxHeavyProcesses(" 2 ")).isEqualTo(2);
+        then(ProcessGovernor.maxHeavyProcesses("")).isGreaterThanOrEqualTo(1);
+        then(ProcessGovernor.maxHeavyProcesses(null)).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void should_reject_a_configured_limit_below_one() {
+        thenThrownBy(() -> ProcessGovernor.maxHeavyProcesses("0")).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("HEAVY_PROCESS_CONCURRENCY")
+            .hasMessageContaining("[0]");
+        thenThrownBy(() -> ProcessGovernor.maxHeavyProcesses("two")).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("HEAVY_PROCESS_CONCURRENCY");
+    }
+
+    private void build(AtomicInteger running, AtomicInteger maxRunning) {
+        governor.run(new String[] { "./gradlew", "build" }, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep();
+            return running.decrementAndGet();
+        });
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -24,6 +24,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.BDDAssertions.then;
@@ -63,6 +64,16 @@ class ProcessRunnerTests {
         then(tempFile).exists();
     }
 
+    @Test
+    void should_keep_env_vars_when_running_in_another_directory() throws IOException {
+        File directory = Files.createTempDirectory("micrometer-release").toFile();
+        ProcessRunner processRunner = new ProcessRunner(REPO).withEnvVars(Map.of("RELEASE_TEST", "foo"));
+
+        List<String> output = new ProcessRunner(processRunner, directory).run("sh", "-c", "echo $RELEASE_TEST; pwd");
+
+        then(output).containsExactly("foo", directory.getCanonicalPath());
+    }
+
     @Test
     void should_log_silently_with_less_output() {
         then(exceptionThrowingWhenLoggingProcessRunner().runSilently(List.of("foo"))).isEqualTo(List.of("Hello"));
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class ReleaseHttpClientTests {
+
+    @RegisterExtension
+    static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+    HttpClient httpClient = new ReleaseHttpClient(2, Duration.ofSeconds(5));
+
+    @Test
+    void should_ask_for_gzip_and_decompress_the_response() throws Exception {
+        wm1.stubFor(get("/gzipped").willReturn(ok().withHeader("Content-Encoding", "gzip").withBody(gzip("hello"))));
+
+        HttpResponse<String> response = httpClient.send(request("/gzipped").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        then(response.body()).isEqualTo("hello");
+        wm1.verify(getRequestedFor(urlEqualTo("/gzipped")).withHeader("Accept-Encoding", equalTo("gzip")));
+    }
+
+    @Test
+    void should_pass_through_plain_responses() {
+        wm1.stubFor(get("/plain").willReturn(ok("hello")));
+
+        HttpResponse<String> response = httpClient
+            .sendAsync(request("/plain").header("Accept-Encoding", "identity").build(),
+                    HttpResponse.BodyHandlers.ofString())
+            .join();
+
+        then(response.body()).isEqualTo("hello");
+    }
+
+    @Test
+    void should_handle_head_requests_of_gzip_resources() throws Exception {
+        wm1.stubFor(head(urlEqualTo("/head")).willReturn(ok().withHeader("Content-Encoding", "gzip")));
+
+        HttpResponse<Void> response = httpClient.send(
+                request("/head").method("HEAD", HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        then(response.statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void should_limit_concurrent_requests_per_host() {
+        wm1.stubFor(get("/slow").willReturn(ok("slow").withFixedDelay(300)));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(httpClient.sendAsync(request("/slow").build(), HttpResponse.BodyHandlers.ofString()));
+        }
+        responses.forEach(CompletableFuture::join);
+
+        // 4 requests, 2 at a time
+        then(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(600));
+    }
+
+    @Test
+    void should_limit_concurrent_requests_per_host_with_push_promises() {
+        wm1.stubFor(get("/slow").willReturn(ok("slow").withFixedDelay(300)));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(httpClient.sendAsync(request("/slow").build(), HttpResponse.BodyHandlers.ofString(),
+                    (initiatingRequest, pushPromiseRequest, acceptor) -> {
+                    }));
+        }
+        responses.forEach(CompletableFuture::join);
+
+        // 4 requests, 2 at a time
+        then(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(600));
+        then(responses).allSatisfy(response -> then(response.join().body()).isEqualTo("slow"));
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder().uri(URI.create(wm1.url(path)));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes());
+        }
+        return bytes.toByteArray();
+    }
+
+}
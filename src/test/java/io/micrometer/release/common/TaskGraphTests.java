@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import io.micrometer.release.common.TaskGraph.Step;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class TaskGraphTests {
+
+    @Test
+    void should_run_independent_steps_concurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (TaskGraph graph = new TaskGraph("test")) {
+            graph.run("first", () -> awaitLatch(bothStarted));
+            graph.run("second", () -> awaitLatch(bothStarted));
+
+            graph.await();
+
+            then(graph.durations()).containsOnlyKeys("first", "second");
+        }
+    }
+
+    @Test
+    void should_run_step_after_its_dependencies() {
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        try (TaskGraph graph = new TaskGraph("test")) {
+            Step<Integer> one = graph.supply("one", () -> {
+                sleep(50);
+                order.add("one");
+                return 1;
+            });
+            Step<Integer> two = graph.supply("two", () -> {
+                order.add("two");
+                return 2;
+            });
+            Step<Integer> sum = graph.supply("sum", () -> {
+                order.add("sum");
+                return one.get() + two.get();
+            }, one, two);
+
+            graph.await();
+
+            then(sum.get()).isEqualTo(3);
+            then(order).endsWith("sum");
+        }
+    }
+
+    @Test
+    void should_not_run_dependents_of_a_failed_step_and_rethrow_its_exception() {
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        try (TaskGraph graph = new TaskGraph("test")) {
+            Step<Void> failing = graph.run("failing", () -> {
+                throw new IllegalStateException("BOOM!");
+            });
+            graph.run("dependent", () -> executed.add("dependent"), failing);
+            graph.run("independent", () -> executed.add("independent"));
+
+            thenThrownBy(graph::await).isInstanceOf(IllegalStateException.class).hasMessage("BOOM!");
+            then(executed).containsExactly("independent");
+            then(graph.durations()).containsOnlyKeys("failing", "independent");
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Steps did not run concurrently");
+            }
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class VersionTests {
+
+    @Test
+    void should_ignore_tag_prefix_and_intern_versions() {
+        then(Version.parse("v1.14.4")).isSameAs(Version.parse("1.14.4")).hasToString("1.14.4");
+    }
+
+    @ParameterizedTest
+    @CsvSource(textBlock = """
+            1.14.4, 1.14
+            v1.15.0-M2, 1.15
+            10.1.0-RC1, 10.1
+            """)
+    void should_return_major_minor(String version, String majorMinor) {
+        then(Version.parse(version).majorMinor()).isEqualTo(majorMinor);
+    }
+
+    @Test
+    void should_compare_versions_numerically() {
+        List<Version> versions = new ArrayList<>(List.of(Version.parse("1.10.0"), Version.parse("1.9.22"),
+                Version.parse("1.10.0-RC1"), Version.parse("1.10.0-M2"), Version.parse("1.10.0-M10"),
+                Version.parse("1.2")));
+
+        versions.sort(null);
+
+        then(versions).extracting(Version::toString)
+            .containsExactly("1.2", "1.9.22", "1.10.0-M2", "1.10.0-M10", "1.10.0-RC1", "1.10.0");
+    }
+
+    @ParameterizedTest
+    @CsvSource(textBlock = """
+            1.0, 1.0.0
+            v1.14, 1.14.0.0
+            1.15.0-M2, 1.15-M2
+            """)
+    void should_treat_missing_numbers_as_zeros_consistently_with_compare_to(String version, String sameVersion) {
+        Version first = Version.parse(version);
+        Version second = Version.parse(sameVersion);
+
+        then(first).isEqualByComparingTo(second).isEqualTo(second).hasSameHashCodeAs(second);
+    }
+
+    @Test
+    void should_not_treat_different_versions_as_equal() {
+        then(Version.parse("1.0.1")).isNotEqualTo(Version.parse("1.0")).isNotEqualByComparingTo(Version.parse("1.0"));
+        then(Version.parse("1.0.0-M1")).isNotEqualTo(Version.parse("1.0.0"))
+            .isNotEqualTo(Version.parse("1.0.0-RC1"));
+        then(Version.parse("1.0.0-SNAPSHOT")).isNotEqualTo(Version.parse("1.0.0-BUILD"));
+    }
+
+    @ParameterizedTest(name = "{index} For current version <{0}> next version should be <{1}>")
+    @CsvSource(textBlock = """
+            1.0.0-M1, 1.0.0-M2
+            1.0.0-M3, 1.0.0-RC1
+            1.0.0-RC1, 1.0.0
+            1.0.9, 1.0.10
+            """)
+    void should_calculate_next_version(String version, String next) {
+        then(Version.parse(version).next()).hasToString(next);
+    }
+
+    @Test
+    void should_fail_for_unsupported_versions() {
+        thenThrownBy(() -> Version.parse("1.0.0-M4").next()).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("we accept M[1-3] or RC1");
+        thenThrownBy(() -> Version.parse("1.x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -16,17 +16,31 @@
 package io.micrometer.release.meta;
 
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 import io.micrometer.release.train.ProjectTrainReleaseWorkflow;
 import io.micrometer.release.train.TestProjectSetup;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 class MetaTrainReleaseWorkflowTests {
 
@@ -34,23 +48,90 @@ class MetaTrainReleaseWorkflowTests {
 
     ProjectTrainReleaseWorkflow projectTrainReleaseWorkflow = mock();
 
+    TrainNotifications trainNotifications = mock();
+
     MetaTrainReleaseWorkflow workflow = new MetaTrainReleaseWorkflow(postReleaseWorkflow) {
+        @Override
+        TrainNotifications trainNotifications() {
+            return trainNotifications;
+        }
+
         @Override
         ProjectTrainReleaseWorkflow workflow(ProjectSetup projectSetup, File projectSubfolder) {
             return projectTrainReleaseWorkflow;
         }
     };
 
+    @BeforeEach
+    void runTrainBeforeSendingNotifications() {
+        willAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).given(trainNotifications).sendAfter(any());
+    }
+
     @Test
-    void should_run_meta_release_in_order() {
+    void should_release_a_version_once_its_dependencies_are_in_maven_central() {
         ProjectSetup micrometerSetup = TestProjectSetup.forMicrometer("1.0.0");
-        ProjectSetup tracingSetup = TestProjectSetup.forTracing("2.0.0");
+        ProjectSetup tracingSetup = TestProjectSetup.forTracingWithMicrometer("2.0.0", "1.0.0");
+        CompletableFuture<Void> micrometerInCentral = new CompletableFuture<>();
+        willAnswer(invocation -> {
+            Function<String, CompletableFuture<Void>> dependenciesInCentral = invocation.getArgument(2);
+            Map<String, CompletableFuture<Void>> inCentral = invocation.getArgument(3);
+            then(dependenciesInCentral.apply("1.0.0")).isDone();
+            micrometerInCentral.complete(null);
+            inCentral.get("1.0.0").complete(null);
+            return null;
+        }).given(projectTrainReleaseWorkflow).run(eq(micrometerSetup), eq(trainNotifications), any(), any());
+        willAnswer(invocation -> {
+            Function<String, CompletableFuture<Void>> dependenciesInCentral = invocation.getArgument(2);
+            dependenciesInCentral.apply("2.0.0").join();
+            then(micrometerInCentral).isDone();
+            return null;
+        }).given(projectTrainReleaseWorkflow).run(eq(tracingSetup), eq(trainNotifications), any(), any());
 
         workflow.run(List.of(micrometerSetup, tracingSetup));
 
-        InOrder inOrder = Mockito.inOrder(projectTrainReleaseWorkflow);
-        inOrder.verify(projectTrainReleaseWorkflow).run(micrometerSetup);
-        inOrder.verify(projectTrainReleaseWorkflow).run(tracingSetup);
+        verify(projectTrainReleaseWorkflow).run(eq(micrometerSetup), eq(trainNotifications), any(), any());
+        verify(projectTrainReleaseWorkflow).run(eq(tracingSetup), eq(trainNotifications), any(), any());
+    }
+
+    @Test
+    void should_release_independent_projects_concurrently() {
+        CountDownLatch allStarted = new CountDownLatch(2);
+        willAnswer(invocation -> {
+            allStarted.countDown();
+            // would time out if projects were released one after another
+            then(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).given(projectTrainReleaseWorkflow).run(any(), eq(trainNotifications), any(), any());
+
+        workflow.run(List.of(TestProjectSetup.forMicrometer("1.0.0"), TestProjectSetup.forTracing("2.0.0")));
+
+        then(allStarted.getCount()).isZero();
+    }
+
+    @Test
+    void should_fail_versions_whose_dependencies_failed() {
+        ProjectSetup micrometerSetup = TestProjectSetup.forMicrometer("1.0.0");
+        ProjectSetup tracingSetup = TestProjectSetup.forTracingWithMicrometer("2.0.0", "1.0.0");
+        willThrow(new IllegalStateException("CI failed")).given(projectTrainReleaseWorkflow)
+            .run(eq(micrometerSetup), eq(trainNotifications), any(), any());
+        willAnswer(invocation -> invocation.<Function<String, CompletableFuture<Void>>>getArgument(2)
+            .apply("2.0.0")
+            .join()).given(projectTrainReleaseWorkflow).run(eq(tracingSetup), eq(trainNotifications), any(), any());
+
+        thenThrownBy(() -> workflow.run(List.of(micrometerSetup, tracingSetup))).hasMessageContaining("CI failed");
+    }
+
+    @Test
+    void should_send_notifications_once_for_the_whole_meta_train() {
+        workflow.run(List.of(TestProjectSetup.forMicrometer("1.0.0"), TestProjectSetup.forTracing("2.0.0")));
+
+        InOrder inOrder = Mockito.inOrder(trainNotifications, projectTrainReleaseWorkflow);
+        inOrder.verify(trainNotifications).sendAfter(any());
+        inOrder.verify(projectTrainReleaseWorkflow, Mockito.times(2)).run(any(), eq(trainNotifications), any(), any());
+        inOrder.verifyNoMoreInteractions();
     }
 
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.single;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.release.common.JsonCodec;
+import io.micrometer.release.single.ChangelogEngine.Issue;
+import io.micrometer.release.single.ChangelogSection.Section;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class ChangelogEngineTests {
+
+    private static final String RECORDED_ISSUES = "/mappings/"
+            + "repos_micrometer-metrics_micrometer_issues-5f063b77-8db9-4591-8b29-7d9341b01ebc.json";
+
+    ChangelogEngine engine = new ChangelogEngine();
+
+    @Test
+    void should_produce_the_same_changelog_as_the_changelog_generator() throws Exception {
+        // Same closed issues as the ones the generator gets in ChangelogGeneratorTests
+        File recordedIssues = new File(ChangelogEngineTests.class.getResource(RECORDED_ISSUES).toURI());
+        List<Issue> issues = JsonCodec
+            .readArray(new ObjectMapper().readTree(recordedIssues).path("response").path("body").asText(), Issue.class);
+
+        Changelog changelog = engine.generateChangelog("v1.14.0", issues);
+
+        thenSameAsChangelogGenerator(changelog, "/generator/micrometer.md");
+    }
+
+    @Test
+    void should_put_release_notes_issues_in_noteworthy_section_like_the_changelog_generator() throws Exception {
+        List<Issue> issues = JsonCodec.readArray("""
+                [{"number":5500,"title":"Remove deprecated Prometheus simpleclient support","user":{"login":"shakuzen"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/issues/5500",
+                  "labels":[{"name":"enhancement"},{"name":"release notes"}]},
+                 {"number":5501,"title":"Add foo","user":{"login":"izeye"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/pull/5501",
+                  "labels":[{"name":"enhancement"}],"pull_request":{}},
+                 {"number":5502,"title":"@Timed ignores extra tags","user":{"login":"foo"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/issues/5502",
+                  "labels":[{"name":"bug"}]},
+                 {"number":5503,"title":"Polish","user":{"login":"jonatan-ivanov"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/pull/5503",
+                  "labels":[{"name":"type: task"}],"pull_request":{}}]
+                """, Issue.class);
+
+        Changelog changelog = engine.generateChangelog("v1.15.0", issues);
+
+        thenSameAsChangelogGenerator(changelog, "/generator/noteworthy.md");
+    }
+
+    @Test
+    void should_put_issue_in_first_matching_section_and_list_contributors() {
+        List<Issue> issues = JsonCodec.readArray("""
+                [{"number":1,"title":"Fix @Timed","user":{"login":"marcingrzejszczak"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/issues/1",
+                  "labels":[{"name":"regression"},{"name":"enhancement"}]},
+                 {"number":2,"title":"Add foo","user":{"login":"izeye"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/pull/2",
+                  "labels":[{"name":"enhancement"}],"pull_request":{}},
+                 {"number":3,"title":"Polish","user":{"login":"foo"},
+                  "html_url":"https://github.com/micrometer-metrics/micrometer/pull/3",
+                  "labels":[],"pull_request":{}}]
+                """, Issue.class);
+
+        Changelog changelog = engine.generateChangelog("v1.14.0", issues);
+
+        then(changelog.getSection(Section.FEATURES).getEntries()).containsExactlyInAnyOrder(
+                "- Fix `@Timed` [#1](https://github.com/micrometer-metrics/micrometer/issues/1)",
+                "- Add foo [#2](https://github.com/micrometer-metrics/micrometer/pull/2)");
+        then(changelog.getSection(Section.BUGS).getEntries()).isEmpty();
+        then(changelog.getSection(Section.CONTRIBUTORS).getEntries())
+            .containsExactlyInAnyOrder(ChangelogSection.CONTRIBUTORS_TEXT, "@foo, and @izeye");
+    }
+
+    private static void thenSameAsChangelogGenerator(Changelog changelog, String generatorOutput) throws Exception {
+        Changelog expected = Changelog
+            .parse(new File(ChangelogEngineTests.class.getResource(generatorOutput).toURI()));
+        then(changelog.getSections()).extracting(ChangelogSection::getSection)
+            .containsExactlyElementsOf(expected.getSections().stream().map(ChangelogSection::getSection).toList());
+        for (ChangelogSection section : expected.getSections()) {
+            then(changelog.getSection(section.getSection()).getEntries()).as(section.getTitle())
+                .containsExactlyInAnyOrderElementsOf(section.getEntries());
+        }
+    }
+
+}
@@ -18,9 +18,14 @@ package io.micrometer.release.single;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.mockito.Mockito.*;
 
+import io.micrometer.release.common.GithubReleasesClient;
+import io.micrometer.release.common.GithubReleasesClient.Release;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.single.ChangelogSection.Section;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 import org.junit.jupiter.api.Test;
 
@@ -28,16 +33,12 @@ class ChangelogFetcherTests {
 
     @Test
     void should_fetch_changelog() {
-        ProcessRunner processRunner = stubProcessRunner();
-        File output = new File(".");
-        ChangelogFetcher changelogFetcher = new ChangelogFetcher(output, processRunner);
+        ChangelogFetcher changelogFetcher = new ChangelogFetcher(stubProcessRunner(),
+                stubReleasesClient("v1.13.8", "## :star: New Features\n\n- Foo"));
 
-        File changelog = changelogFetcher.fetchChangelog("v1.13.8");
+        Changelog changelog = changelogFetcher.fetchChangelog("v1.13.8");
 
-        then(changelog).isSameAs(output);
-        verify(processRunner).run("sh", "-c",
-                String.format("gh release view %s --repo %s/%s --json body --jq .body > %s", "v1.13.8",
-                        "micrometer-metrics", "micrometer", changelog.getAbsolutePath()));
+        then(changelog.getSection(Section.FEATURES).getEntries()).containsExactly("- Foo");
     }
 
     private static ProcessRunner stubProcessRunner() {
@@ -46,8 +47,15 @@ class ChangelogFetcherTests {
         return processRunner;
     }
 
-    static ChangelogFetcher testChangelogFetcher(File output) {
-        return new ChangelogFetcher(output, stubProcessRunner());
+    private static GithubReleasesClient stubReleasesClient(String tag, String body) {
+        GithubReleasesClient client = mock();
+        when(client.getRelease("micrometer-metrics/micrometer", tag)).thenReturn(new Release(1L, tag, body));
+        return client;
+    }
+
+    static ChangelogFetcher testChangelogFetcher(String tag, File previousChangelog) throws IOException {
+        return new ChangelogFetcher(stubProcessRunner(),
+                stubReleasesClient(tag, Files.readString(previousChangelog.toPath())));
     }
 
 }
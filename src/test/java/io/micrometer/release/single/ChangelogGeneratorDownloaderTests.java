@@ -20,51 +20,101 @@ import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 
 class ChangelogGeneratorDownloaderTests {
 
+    // sha256 of "text"
+    private static final String TEXT_SHA256 = "982d9e3eb996f559e633f4d194def3761d909f5a3b647d1a851fead67c32c9d1";
+
     @RegisterExtension
     static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
 
-    File outputJar = new File("build", "output.jar");
+    HttpClient httpClient = HttpClient.newHttpClient();
+
+    @TempDir
+    Path cacheDir;
 
     @BeforeEach
     void setup() {
-        if (outputJar.exists()) {
-            outputJar.delete();
-        }
-        then(outputJar).doesNotExist();
         wm1.stubFor(WireMock.any(WireMock.anyUrl()).willReturn(WireMock.aResponse().withBody("text")));
     }
 
     @Test
     void should_download_changelog_generator_when_jar_not_present() throws Exception {
-        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(wm1.baseUrl(), outputJar);
+        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(httpClient, wm1.baseUrl() + "/v%s",
+                cacheDir, "0.0.12", null);
 
-        downloader.downloadChangelogGenerator();
+        File jar = downloader.downloadChangelogGenerator();
 
-        then(outputJar).exists();
+        then(jar).hasContent("text").isEqualTo(cacheDir.resolve("0.0.12/github-changelog-generator.jar").toFile());
+        then(cacheDir.resolve("0.0.12/github-changelog-generator.jar.sha256")).hasContent(TEXT_SHA256);
+        then(cacheDir.resolve("0.0.12")).isDirectoryNotContaining("glob:**.tmp");
+        wm1.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v0.0.12")));
     }
 
     @Test
     void should_not_download_changelog_generator_when_jar_present() throws Exception {
-        outputJar.createNewFile();
-        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(wm1.baseUrl(), outputJar) {
+        givenCachedJar("0.0.12", "text", TEXT_SHA256);
+        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(httpClient, wm1.baseUrl(), cacheDir,
+                "0.0.12", TEXT_SHA256) {
             @Override
             void download() throws IOException, InterruptedException {
                 throw new AssertionError("Should not be called");
             }
         };
 
+        File jar = downloader.downloadChangelogGenerator();
+
+        then(jar).exists();
+    }
+
+    @Test
+    void should_download_changelog_generator_when_only_other_version_present() throws Exception {
+        givenCachedJar("0.0.11", "text", TEXT_SHA256);
+        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(httpClient, wm1.baseUrl() + "/v%s",
+                cacheDir, "0.0.12", null);
+
         downloader.downloadChangelogGenerator();
 
-        then(outputJar).exists();
+        wm1.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v0.0.12")));
+    }
+
+    @Test
+    void should_download_changelog_generator_again_when_cached_jar_is_corrupted() throws Exception {
+        givenCachedJar("0.0.12", "te", TEXT_SHA256);
+        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(httpClient, wm1.baseUrl(), cacheDir,
+                "0.0.12", null);
+
+        File jar = downloader.downloadChangelogGenerator();
+
+        then(jar).hasContent("text");
+    }
+
+    @Test
+    void should_fail_when_downloaded_jar_has_unexpected_checksum() {
+        ChangelogGeneratorDownloader downloader = new ChangelogGeneratorDownloader(httpClient, wm1.baseUrl(), cacheDir,
+                "0.0.12", "0000");
+
+        thenThrownBy(downloader::downloadChangelogGenerator).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("but [0000] was expected");
+        then(cacheDir.resolve("0.0.12")).isEmptyDirectory();
+    }
+
+    private void givenCachedJar(String version, String content, String checksum) throws IOException {
+        Path versionDir = Files.createDirectories(cacheDir.resolve(version));
+        Files.writeString(versionDir.resolve("github-changelog-generator.jar"), content);
+        Files.writeString(versionDir.resolve("github-changelog-generator.jar.sha256"), checksum);
     }
 
 }
@@ -23,7 +23,6 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 
 import java.io.File;
 import java.net.URL;
-import java.nio.file.Files;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.BDDAssertions.then;
@@ -38,15 +37,15 @@ class ChangelogGeneratorTests {
     @Test
     void should_produce_changelog_output_for_micrometer() throws Exception {
         URL resource = ChangelogGeneratorTests.class.getResource("/generator/github-changelog-generator.jar");
-        File output = Files.createTempFile("github-changelog-generator", ".md").toFile();
 
-        ChangelogGenerator generator = testChangelogGenerator(output);
+        ChangelogGenerator generator = testChangelogGenerator();
 
-        generator.generateChangelog("v1.14.0", "micrometer-metrics/micrometer", new File(resource.toURI()));
+        Changelog changelog = generator.generateChangelog("v1.14.0", "micrometer-metrics/micrometer",
+                new File(resource.toURI()));
 
-        String content = Files.readString(
-                new File(ChangelogGeneratorTests.class.getResource("/generator/micrometer.md").toURI()).toPath());
-        then(output).hasContent(content);
+        Changelog expected = Changelog
+            .parse(new File(ChangelogGeneratorTests.class.getResource("/generator/micrometer.md").toURI()));
+        then(changelog.toMarkdown()).isEqualTo(expected.toMarkdown());
     }
 
     @Test
@@ -54,8 +53,8 @@ class ChangelogGeneratorTests {
         thenNoException().isThrownBy(() -> new ChangelogGenerator(new ProcessRunner()));
     }
 
-    static ChangelogGenerator testChangelogGenerator(String ghApi, File changelogOutput) {
-        return new ChangelogGenerator(ghApi, changelogOutput) {
+    static ChangelogGenerator testChangelogGenerator(String ghApi) {
+        return new ChangelogGenerator(ghApi) {
             @Override
             String getJava() {
                 return JavaHomeFinder.findJavaExecutablePath();
@@ -63,8 +62,8 @@ class ChangelogGeneratorTests {
         };
     }
 
-    static ChangelogGenerator testChangelogGenerator(File changelogOutput) {
-        return testChangelogGenerator("http://localhost:60006", changelogOutput);
+    static ChangelogGenerator testChangelogGenerator() {
+        return testChangelogGenerator("http://localhost:60006");
     }
 
 }
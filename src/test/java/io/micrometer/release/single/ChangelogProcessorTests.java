@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.Set;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -29,12 +30,10 @@ class ChangelogProcessorTests {
 
     File expectedOutput = new File(ChangelogProcessorTests.class.getResource("/processor/output.md").toURI());
 
-    File output = Files.createTempFile("output", ".md").toFile();
+    ChangelogProcessor processor = testChangelogProcessor();
 
-    ChangelogProcessor processor = testChangelogProcessor(output);
-
-    static ChangelogProcessor testChangelogProcessor(File output) {
-        return new ChangelogProcessor(output, new TestGradleParser());
+    static ChangelogProcessor testChangelogProcessor() {
+        return new ChangelogProcessor(new TestGradleParser());
     }
 
     ChangelogProcessorTests() throws Exception {
@@ -42,10 +41,27 @@ class ChangelogProcessorTests {
 
     @Test
     void should_parse_single_changelog() throws Exception {
-        processor.processChangelog(input, null);
+        String output = processor.processChangelog(Changelog.parse(input), null);
 
         // Additional new line gets added
-        then(Files.readString(output.toPath())).isEqualToIgnoringNewLines(Files.readString(expectedOutput.toPath()));
+        then(output).isEqualToIgnoringNewLines(Files.readString(expectedOutput.toPath()));
+    }
+
+    @Test
+    void should_keep_dependency_upgrades_with_malformed_versions_as_they_are() {
+        Changelog changelog = Changelog.parse("""
+                ## :hammer: Dependency Upgrades
+
+                - Bump com.example:lib from 1..1 to 1.1.2 [#28](https://github.com/org/repo/pull/28)
+                - Bump org.hsqldb:hsqldb from 2.7.3 to 2.7.4 [#36](https://github.com/org/repo/pull/36)
+                - Bump org.hsqldb:hsqldb from 2.7.4 to 2.7.5 [#38](https://github.com/org/repo/pull/38)
+                """);
+
+        String output = processor.processChangelog(changelog, null, Set.of());
+
+        then(output).contains(
+                "- Bump com.example:lib from 1..1 to 1.1.2 [#28](https://github.com/org/repo/pull/28)",
+                "- Bump org.hsqldb:hsqldb from 2.7.3 to 2.7.5 [#36](https://github.com/org/repo/pull/36)");
     }
 
 }
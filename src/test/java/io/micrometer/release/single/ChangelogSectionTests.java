@@ -16,6 +16,7 @@
 package io.micrometer.release.single;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 
 import io.micrometer.release.single.ChangelogSection.Section;
 import org.junit.jupiter.api.Assumptions;
@@ -34,6 +35,16 @@ class ChangelogSectionTests {
         then(section.getEntries()).containsExactly("foo");
     }
 
+    @Test
+    void should_expose_sorted_read_only_entries() {
+        ChangelogSection section = new ChangelogSection(Section.BUGS);
+        section.addEntry("- b");
+        section.addEntry("- a");
+
+        then(section.getEntries()).containsExactly("- a", "- b");
+        thenThrownBy(() -> section.getEntries().add("- c")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
     @Test
     void should_get_title() {
         ChangelogSection section = new ChangelogSection(Section.UPGRADES);
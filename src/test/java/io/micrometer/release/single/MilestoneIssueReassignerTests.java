@@ -23,7 +23,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
@@ -37,6 +42,8 @@ class MilestoneIssueReassignerTests {
 
     private static final int OPEN_ISSUE_ID = 3;
 
+    private static final Pattern ALIAS = Pattern.compile("i(\\d+): ");
+
     ProcessRunner processRunner = mock();
 
     MilestoneIssueReassigner reassigner;
@@ -96,6 +103,79 @@ class MilestoneIssueReassignerTests {
         thenClosedIssuesFromGenericMilestoneGotMovedToConcreteMilestone(concreteMilestone);
     }
 
+    @Test
+    void should_reassign_hundreds_of_issues_with_a_few_batched_graphql_requests() {
+        setupProcessRunner("1.0.2");
+        List<String> graphqlRequests = stubGraphqlServer(-1);
+        List<Integer> closedIssues = IntStream.rangeClosed(1000, 1299).boxed().toList();
+
+        reassigner.reassignIssues(new Milestone(1, "1.0.1"), "v1.0.1", closedIssues, Collections.emptyList());
+
+        // 300 issues / 50 per batch = 6 batches, each one node id query + one mutation
+        then(graphqlRequests).hasSize(12);
+        for (int batch = 0; batch < 6; batch++) {
+            List<Integer> batchIssues = closedIssues.subList(batch * 50, (batch + 1) * 50);
+            String query = graphqlRequests.get(2 * batch);
+            String mutation = graphqlRequests.get(2 * batch + 1);
+            then(query).startsWith("query { repository(owner: \"micrometer-metrics\", name: \"build-test\") "
+                    + "{ milestone(number: 1) { id }");
+            then(aliases(query)).containsExactlyElementsOf(batchIssues);
+            then(mutation).startsWith("mutation {");
+            then(aliases(mutation)).containsExactlyElementsOf(batchIssues);
+            batchIssues.forEach(number -> then(mutation).contains("i" + number + ": updateIssue(input: {id: \"I_"
+                    + number + "\", milestoneId: \"MI_1\"}) { clientMutationId }"));
+        }
+        verify(processRunner, never()).run(eq("gh"), eq("api"), startsWith("/repos/" + GH_REPO + "/issues/"),
+                eq("-X"), eq("PATCH"), eq("-f"), anyString());
+    }
+
+    @Test
+    void should_retry_issues_that_failed_in_a_batch_one_by_one() {
+        setupProcessRunner("1.0.2");
+        stubGraphqlServer(OPEN_ISSUE_ID);
+
+        reassigner.reassignIssues(new Milestone(1, "1.0.1"), "v1.0.1", List.of(CLOSED_ISSUE_ID, OPEN_ISSUE_ID),
+                Collections.emptyList());
+
+        verify(processRunner).run("gh", "api", String.format("/repos/%s/issues/%d", GH_REPO, OPEN_ISSUE_ID), "-X",
+                "PATCH", "-f", "milestone=1");
+        verify(processRunner, never()).run("gh", "api", String.format("/repos/%s/issues/%d", GH_REPO, CLOSED_ISSUE_ID),
+                "-X", "PATCH", "-f", "milestone=1");
+    }
+
+    // Stands in for the GitHub GraphQL API behind "gh api graphql", returns the sent
+    // queries
+    private List<String> stubGraphqlServer(int failingIssueNumber) {
+        List<String> requests = new ArrayList<>();
+        when(processRunner.runSilently(any(String[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            then(arguments).startsWith("gh", "api", "graphql", "-f");
+            String query = ((String) arguments[arguments.length - 1]).substring("query=".length());
+            requests.add(query);
+            StringBuilder data = new StringBuilder();
+            for (int number : aliases(query)) {
+                String node = query.startsWith("mutation")
+                        ? (number == failingIssueNumber ? "null" : "{\"clientMutationId\":null}")
+                        : "{\"__typename\":\"Issue\",\"id\":\"I_" + number + "\"}";
+                data.append(",\"i").append(number).append("\":").append(node);
+            }
+            if (query.startsWith("mutation")) {
+                return List.of("{\"data\":{" + data.substring(1) + "}}");
+            }
+            return List.of("{\"data\":{\"repository\":{\"milestone\":{\"id\":\"MI_1\"}" + data + "}}}");
+        });
+        return requests;
+    }
+
+    private static List<Integer> aliases(String query) {
+        List<Integer> numbers = new ArrayList<>();
+        Matcher matcher = ALIAS.matcher(query);
+        while (matcher.find()) {
+            numbers.add(Integer.parseInt(matcher.group(1)));
+        }
+        return numbers;
+    }
+
     private static void thenMilestoneHasProperDeadline(MilestoneWithDeadline milestoneWithDeadline, String title) {
         then(milestoneWithDeadline.id()).isEqualTo(5);
         then(milestoneWithDeadline.title()).isEqualTo(title);
@@ -18,14 +18,22 @@ package io.micrometer.release.single;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.release.common.GithubPaginator;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.single.ChangelogEngine.Issue;
 import io.micrometer.release.single.MilestoneMigrator.Milestone;
+import io.micrometer.release.single.MilestoneMigrator.MilestoneMigration;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,69 +42,78 @@ class MilestoneMigratorTests {
 
     private static final String GH_REPO = "micrometer-metrics/build-test";
 
+    private static final String MILESTONES_URL = "/repos/" + GH_REPO + "/milestones?per_page=100";
+
     ProcessRunner runner = mock();
 
     MilestoneIssueReassigner reasigner = mock();
 
+    GithubPaginator paginator = mock();
+
     MilestoneMigrator migrator;
 
     @BeforeEach
     void setup() {
         when(runner.getOrgRepo()).thenReturn(GH_REPO);
-        migrator = new MilestoneMigrator(runner, reasigner);
-    }
-
-    @Test
-    void should_throw_exception_when_no_milestone_found() {
-        thenThrownBy(() -> migrator.migrateMilestones("v1.0.0")).isInstanceOf(IllegalStateException.class)
-            .hasMessageContaining("No response from gh cli for version <1.0.0>");
+        migrator = new MilestoneMigrator(runner, reasigner, paginator);
     }
 
     @Test
     void should_throw_exception_when_no_milestone_found_in_github_response() {
-        when(runner.run(any(String[].class))).thenReturn(Collections.singletonList(""));
-        thenThrownBy(() -> migrator.migrateMilestones("v1.0.0")).isInstanceOf(IllegalStateException.class)
-            .hasMessageContaining("Could not find milestone for <v1.0.0>");
+        givenPages(MILESTONES_URL, "[]");
 
-        when(runner.run(any(String[].class))).thenReturn(Collections.singletonList(null));
         thenThrownBy(() -> migrator.migrateMilestones("v1.0.0")).isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("Could not find milestone for <v1.0.0>");
     }
 
     @Test
     void should_throw_exception_when_no_generic_milestone_found() {
-        when(runner.run(any(String[].class)))
-            .thenReturn(Collections.singletonList("{\"number\":5,\"title\":\"1.0.0\"}"))
-            .thenReturn(Collections.singletonList(""));
+        givenPages(MILESTONES_URL, "[{\"number\":5,\"title\":\"1.0.0\"}]");
 
         thenThrownBy(() -> migrator.migrateMilestones("v1.0.0")).isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("Could not find generic milestone <1.0.x>");
     }
 
+    @Test
+    void should_find_milestone_on_any_page() {
+        givenPages(MILESTONES_URL, "[{\"number\":1,\"title\":\"0.9.0\",\"creator\":{\"login\":\"foo\"}}]",
+                "[{\"number\":4,\"title\":\"1.0.x\"},{\"number\":5,\"title\":\"1.0.0\"}]");
+
+        then(migrator.findMilestone("1.0.0")).isEqualTo(new Milestone(5, "1.0.0"));
+    }
+
     @Test
     void should_reassign_issues_from_generic_milestone_to_concrete_one() {
         String concrete = "1.0.0";
         String generic = "1.0.x";
-        when(runner.run("gh", "api", "--paginate", "/repos/" + GH_REPO + "/milestones", "--jq",
-                String.format(".[] | select(.title == \"%s\") | {number: .number, title: .title}", concrete)))
-            .thenReturn(Collections.singletonList("{\"number\":5,\"title\":\"" + concrete + "\"}")); // concrete
-        when(runner.run("gh", "api", "--paginate", "/repos/" + GH_REPO + "/milestones", "--jq",
-                String.format(".[] | select(.title == \"%s\") | {number: .number, title: .title}", generic)))
-            .thenReturn(Collections.singletonList("{\"number\":4,\"title\":\"" + generic + "\"}")); // generic
-        when(runner.run("gh", "api", "--paginate", String.format("/repos/%s/issues?milestone=%d&state=all", GH_REPO, 5),
-                "--jq", ".[] | {number: .number, state: .state}"))
-            .thenReturn(Collections.singletonList("{\"number\":10,\"state\":\"open\"}")); // concrete
-        when(runner.run("gh", "api", "--paginate", String.format("/repos/%s/issues?milestone=%d&state=all", GH_REPO, 4),
-                "--jq", ".[] | {number: .number, state: .state}"))
-            .thenReturn(Collections.singletonList("{\"number\":11,\"state\":\"closed\"}")); // generic
+        givenPages(MILESTONES_URL, "[{\"number\":4,\"title\":\"" + generic + "\"}]",
+                "[{\"number\":5,\"title\":\"" + concrete + "\"}]");
+        givenPages(String.format("/repos/%s/issues?milestone=%d&state=open&per_page=100", GH_REPO, 5),
+                "[{\"number\":10,\"state\":\"open\",\"title\":\"Open\",\"labels\":[]}]"); // concrete
+        givenPages(String.format("/repos/%s/issues?milestone=%d&state=closed&per_page=100", GH_REPO, 5),
+                "[{\"number\":9,\"state\":\"closed\",\"title\":\"Done\",\"labels\":[{\"name\":\"bug\"}]}]"); // concrete
+        givenPages(String.format("/repos/%s/issues?milestone=%d&state=closed&per_page=100", GH_REPO, 4),
+                "[{\"number\":11,\"state\":\"closed\",\"user\":{\"login\":\"foo\"}}]",
+                "[{\"number\":12,\"state\":\"closed\"}]"); // generic, two pages
         MilestoneWithDeadline expectedMilestone = new MilestoneWithDeadline(12, "1.0.1", LocalDate.of(2025, 1, 1));
-        when(reasigner.reassignIssues(new Milestone(5, concrete), "v" + concrete, Collections.singletonList(11),
+        when(reasigner.reassignIssues(new Milestone(5, concrete), "v" + concrete, List.of(11, 12),
                 Collections.singletonList(10)))
             .thenReturn(expectedMilestone);
 
-        MilestoneWithDeadline withDeadline = migrator.migrateMilestones("v1.0.0");
+        MilestoneMigration migration = migrator.migrateMilestones("v1.0.0");
+
+        then(migration.newMilestone()).isSameAs(expectedMilestone);
+        then(migration.releasedIssues()).extracting(Issue::number).containsExactly(9, 11, 12);
+        then(migration.releasedIssues().get(0).labels()).extracting(ChangelogEngine.Label::name)
+            .containsExactly("bug");
+    }
 
-        then(withDeadline).isSameAs(expectedMilestone);
+    private void givenPages(String path, String... pages) {
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(1);
+            Arrays.stream(pages).forEach(consumer);
+            return null;
+        }).when(paginator).fetchPages(eq(path), any());
     }
 
 }
@@ -15,12 +15,16 @@
  */
 package io.micrometer.release.single;
 
+import io.micrometer.release.common.GithubPaginator;
 import io.micrometer.release.common.ProcessRunner;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -31,11 +35,14 @@ class MilestoneUpdaterTests {
         ProcessRunner processRunner = mock();
         String ghRepo = "micrometer-metrics/micrometer";
         given(processRunner.getOrgRepo()).willReturn(ghRepo);
-        given(processRunner.run("gh", "api", "--paginate", "/repos/micrometer-metrics/micrometer/milestones", "--jq",
-                String.format(".[] | select(.title == \"%s\") | {number: .number, title: .title}", "1.2.3")))
-            .willReturn(List.of("{\"number\":100,\"title\":\"1.2.3\"}"));
+        GithubPaginator paginator = mock();
+        willAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(1);
+            consumer.accept("[{\"number\":100,\"title\":\"1.2.3\"}]");
+            return null;
+        }).given(paginator).fetchPages(eq("/repos/micrometer-metrics/micrometer/milestones?per_page=100"), any());
         MilestoneUpdater milestoneUpdater = new MilestoneUpdater(processRunner, ghRepo,
-                new MilestoneMigrator(processRunner, new MilestoneIssueReassigner(processRunner)));
+                new MilestoneMigrator(processRunner, new MilestoneIssueReassigner(processRunner), paginator));
 
         milestoneUpdater.closeMilestone("v1.2.3");
 
@@ -17,9 +17,21 @@ package io.micrometer.release.single;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.tuple;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.release.single.NotificationSender.BlueSkyNotifier;
+import io.micrometer.release.single.NotificationSender.BlueSkyNotifier.TrainPost;
+import io.micrometer.release.single.NotificationSender.NotificationResult;
+import io.micrometer.release.single.NotificationSender.Release;
+import io.micrometer.release.single.NotificationSender.Status;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
@@ -28,22 +40,117 @@ class NotificationSenderTests {
     @RegisterExtension
     static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
 
+    @BeforeEach
+    void clearBlueSkySessions() {
+        BlueSkyNotifier.clearSessions();
+    }
+
     @Test
     void should_send_a_message_to_notifiers() {
         NotificationSender sender = testNotificationSender(wm1);
 
-        sender.sendNotifications("micrometer", "v1.14.0", null);
+        List<NotificationResult> results = sender.sendNotifications("micrometer", "v1.14.0", null);
 
         assertThatNotificationGotSent(wm1);
+        then(results).extracting(NotificationResult::status).containsExactly(Status.SENT, Status.SENT);
+    }
+
+    @Test
+    void should_reuse_bluesky_session_across_posts() {
+        testNotificationSender(wm1).sendNotifications("micrometer", "v1.14.0", null);
+        testNotificationSender(wm1).sendNotifications("tracing", "v1.4.0", null);
+
+        wm1.verify(1, postRequestedFor(urlEqualTo("/xrpc/com.atproto.server.createSession")));
+        wm1.verify(2, postRequestedFor(urlEqualTo("/xrpc/com.atproto.repo.createRecord")));
+    }
+
+    @Test
+    void should_refresh_bluesky_session_when_token_expired() {
+        NotificationSender sender = testNotificationSender(wm1);
+        wm1.stubFor(post("/xrpc/com.atproto.repo.createRecord").inScenario("expiry")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(400)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"error\":\"ExpiredToken\",\"message\":\"Token has expired\"}"))
+            .willSetStateTo("expired"));
+        wm1.stubFor(post("/xrpc/com.atproto.repo.createRecord").inScenario("expiry")
+            .whenScenarioStateIs("expired")
+            .withHeader("Authorization", equalTo("Bearer refreshed"))
+            .willReturn(okJson("{\"commit\":{\"rev\":\"rev\"}}")));
+        wm1.stubFor(post("/xrpc/com.atproto.server.refreshSession")
+            .withHeader("Authorization", equalTo("Bearer string"))
+            .willReturn(okJson("{\"accessJwt\":\"refreshed\",\"refreshJwt\":\"refreshed-refresh\"}")));
+
+        List<NotificationResult> results = sender.sendNotifications("micrometer", "v1.14.0", null);
+
+        then(results).extracting(NotificationResult::status).containsExactly(Status.SENT, Status.SENT);
+        wm1.verify(1, postRequestedFor(urlEqualTo("/xrpc/com.atproto.server.createSession")));
+        wm1.verify(1, postRequestedFor(urlEqualTo("/xrpc/com.atproto.server.refreshSession")));
+        wm1.verify(2, postRequestedFor(urlEqualTo("/xrpc/com.atproto.repo.createRecord")));
+    }
+
+    @Test
+    void should_send_remaining_notifications_when_one_notifier_fails() {
+        NotificationSender sender = testNotificationSender(wm1);
+        wm1.stubFor(post("/xrpc/com.atproto.server.createSession").willReturn(serverError()));
+
+        List<NotificationResult> results = sender.sendNotifications("micrometer", "v1.14.0", null);
+
+        wm1.verify(postRequestedFor(urlEqualTo("/")));
+        then(results).extracting(NotificationResult::notifier, NotificationResult::status)
+            .containsExactly(tuple("Google Chat", Status.SENT), tuple("Bluesky", Status.FAILED));
+        then(results.get(1).error()).hasMessageContaining("500");
+    }
+
+    @Test
+    void should_time_out_slow_notifiers() {
+        testNotificationSender(wm1);
+        wm1.stubFor(post("/xrpc/com.atproto.server.createSession")
+            .willReturn(okJson("{\"accessJwt\": \"string\"}").withFixedDelay(2000)));
+        NotificationSender sender = new NotificationSender() {
+            @Override
+            BlueSkyNotifier blueSky() {
+                return new BlueSkyNotifier(HttpClient.newHttpClient(), wm1.baseUrl(), "identifier", "password") {
+                    @Override
+                    public Duration timeout() {
+                        return Duration.ofMillis(100);
+                    }
+                };
+            }
+
+            @Override
+            GoogleChatNotifier googleChat() {
+                return new GoogleChatNotifier(HttpClient.newHttpClient(), wm1.baseUrl());
+            }
+        };
+
+        List<NotificationResult> results = sender.sendNotifications("micrometer", "v1.14.0", null);
+
+        then(results).extracting(NotificationResult::status).containsExactly(Status.SENT, Status.TIMED_OUT);
     }
 
     @Test
     void should_not_send_messages_when_notifiers_not_set_properly() {
         NotificationSender sender = emptyNotifications(wm1);
 
-        sender.sendNotifications("micrometer", "v1.14.0", null);
+        List<NotificationResult> results = sender.sendNotifications("micrometer", "v1.14.0", null);
 
         assertThatNoNotificationGotSent(wm1);
+        then(results).extracting(NotificationResult::status).containsExactly(Status.SKIPPED, Status.SKIPPED);
+    }
+
+    @Test
+    void should_continue_a_project_with_many_versions_in_the_next_post() {
+        List<Release> releases = IntStream.range(0, 60)
+            .mapToObj(patch -> new Release("micrometer", "v1.14." + patch, null))
+            .toList();
+
+        List<TrainPost> posts = TrainPost.of(releases);
+
+        then(posts).hasSize(3)
+            .allSatisfy(post -> then(post.text().length()).isLessThanOrEqualTo(TrainPost.MAX_LENGTH));
+        then(posts.get(1).text()).startsWith("New Micrometer releases are out! (continued)\n\nmicrometer 1.14.29, ");
+        then(posts).flatExtracting(TrainPost::facets).hasSize(60);
     }
 
     static void assertThatNotificationGotSent(WireMockExtension wireMockExtension) {
@@ -85,12 +192,12 @@ class NotificationSenderTests {
         return new NotificationSender() {
             @Override
             BlueSkyNotifier blueSky() {
-                return new BlueSkyNotifier(new ObjectMapper(), extension.baseUrl(), "identifier", "password");
+                return new BlueSkyNotifier(HttpClient.newHttpClient(), extension.baseUrl(), "identifier", "password");
             }
 
             @Override
             GoogleChatNotifier googleChat() {
-                return new GoogleChatNotifier(extension.baseUrl());
+                return new GoogleChatNotifier(HttpClient.newHttpClient(), extension.baseUrl());
             }
         };
     }
@@ -100,13 +207,13 @@ class NotificationSenderTests {
             @Override
             BlueSkyNotifier blueSky() {
                 super.blueSky(); // to ensure no exception is thrown
-                return new BlueSkyNotifier(new ObjectMapper(), extension.baseUrl(), "identifier", "");
+                return new BlueSkyNotifier(HttpClient.newHttpClient(), extension.baseUrl(), "identifier", "");
             }
 
             @Override
             GoogleChatNotifier googleChat() {
                 super.googleChat(); // to ensure no exception is thrown
-                return new GoogleChatNotifier("");
+                return new GoogleChatNotifier(HttpClient.newHttpClient(), "");
             }
         };
     }
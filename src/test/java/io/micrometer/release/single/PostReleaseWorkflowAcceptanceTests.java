@@ -17,17 +17,21 @@ package io.micrometer.release.single;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import io.micrometer.release.common.ProcessRunner;
+import io.micrometer.release.single.MilestoneMigrator.MilestoneMigration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.net.http.HttpClient;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -39,11 +43,7 @@ class PostReleaseWorkflowAcceptanceTests {
 
     Path tmpDir = Files.createTempDirectory("micrometer-release");
 
-    File outputJar = new File(tmpDir.toFile(), "generator.jar");
-
-    File outputChangelog = new File(tmpDir.toFile(), "output.md");
-
-    File oldOutputChangelog = new File(
+    File previousReleaseNotes = new File(
             AssertingReleaseNotesUpdater.class.getResource("/processor/micrometer-1.13.9-output.md").toURI());
 
     MilestoneUpdater milestoneUpdater = mock();
@@ -55,6 +55,7 @@ class PostReleaseWorkflowAcceptanceTests {
 
     @Test
     void should_perform_full_post_release_process() throws Exception {
+        given(milestoneUpdater.updateMilestones("v1.14.0")).willReturn(new MilestoneMigration(null, List.of()));
         PostReleaseWorkflow postReleaseWorkflow = testPostReleaseWorkflow(updater);
 
         postReleaseWorkflow.run("v1.14.0", "v1.13.9");
@@ -64,12 +65,14 @@ class PostReleaseWorkflowAcceptanceTests {
         NotificationSenderTests.assertThatNotificationGotSent(wm1);
     }
 
-    private PostReleaseWorkflow testPostReleaseWorkflow(AssertingReleaseNotesUpdater updater) {
+    private PostReleaseWorkflow testPostReleaseWorkflow(AssertingReleaseNotesUpdater updater) throws IOException {
         return new PostReleaseWorkflow(
-                new ChangelogGeneratorDownloader(ChangelogGeneratorDownloader.CHANGELOG_GENERATOR_URL, outputJar),
-                ChangelogGeneratorTests.testChangelogGenerator(outputChangelog),
-                ChangelogFetcherTests.testChangelogFetcher(oldOutputChangelog),
-                ChangelogProcessorTests.testChangelogProcessor(outputChangelog), updater, milestoneUpdater,
+                new ChangelogGeneratorDownloader(HttpClient.newHttpClient(),
+                        ChangelogGeneratorDownloader.CHANGELOG_GENERATOR_URL, tmpDir,
+                        ChangelogGeneratorDownloader.DEFAULT_CHANGELOG_GENERATOR_VERSION, null),
+                ChangelogGeneratorTests.testChangelogGenerator(),
+                ChangelogFetcherTests.testChangelogFetcher("v1.13.9", previousReleaseNotes),
+                ChangelogProcessorTests.testChangelogProcessor(), updater, milestoneUpdater,
                 NotificationSenderTests.testNotificationSender(wm1),
                 new ProcessRunner("micrometer-metrics/micrometer"));
     }
@@ -82,16 +85,15 @@ class PostReleaseWorkflowAcceptanceTests {
         private boolean wasCalled;
 
         AssertingReleaseNotesUpdater() throws URISyntaxException {
-            super(new ProcessRunner("micrometer-metrics/micrometer"));
+            super("micrometer-metrics/micrometer", null);
         }
 
         @Override
-        void updateReleaseNotes(String githubRef, File changelog) {
+        void updateReleaseNotes(String githubRef, String changelog) {
             wasCalled = true;
 
             try {
-                then(Files.readString(changelog.toPath()))
-                    .isEqualToIgnoringNewLines(Files.readString(expectedOutput.toPath()));
+                then(changelog).isEqualToIgnoringNewLines(Files.readString(expectedOutput.toPath()));
             }
             catch (IOException e) {
                 throw new RuntimeException(e);
@@ -17,9 +17,7 @@ package io.micrometer.release.single;
 
 import static org.mockito.Mockito.mock;
 
-import io.micrometer.release.common.ProcessRunner;
-
-import java.io.File;
+import io.micrometer.release.common.GithubReleasesClient;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -28,14 +26,13 @@ class ReleaseNotesUpdaterTests {
 
     @Test
     void should_update_release_notes() {
-        ProcessRunner processRunner = mock();
-        ReleaseNotesUpdater releaseNotesUpdater = new ReleaseNotesUpdater(processRunner);
-        File changelog = new File(".");
+        GithubReleasesClient client = mock();
+        ReleaseNotesUpdater releaseNotesUpdater = new ReleaseNotesUpdater("micrometer-metrics/micrometer", client);
 
-        releaseNotesUpdater.updateReleaseNotes("v1.0.0", changelog);
+        releaseNotesUpdater.updateReleaseNotes("v1.0.0", "## :star: New Features");
 
-        Mockito.verify(processRunner)
-            .run("gh", "release", "edit", "v1.0.0", "--notes-file", changelog.getAbsolutePath());
+        Mockito.verify(client)
+            .updateReleaseNotes("micrometer-metrics/micrometer", "v1.0.0", "## :star: New Features");
     }
 
 }
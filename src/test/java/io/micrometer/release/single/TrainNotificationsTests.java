@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.single;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.release.common.JsonCodec;
+import io.micrometer.release.single.NotificationSender.BlueSkyNotifier;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class TrainNotificationsTests {
+
+    @RegisterExtension
+    static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+    TrainNotifications trainNotifications = new TrainNotifications(
+            NotificationSenderTests.testNotificationSender(wm1));
+
+    @BeforeEach
+    void setup() {
+        BlueSkyNotifier.clearSessions();
+        wm1.stubFor(post(urlPathEqualTo("/")).withQueryParam("threadKey", matching("release-train-.*"))
+            .willReturn(ok()));
+    }
+
+    @Test
+    void should_send_one_notification_per_notifier_for_the_whole_train() {
+        trainNotifications.add("micrometer", "v1.15.0", null);
+        trainNotifications.add("tracing", "v1.5.0", null);
+        trainNotifications.add("micrometer", "v1.14.9",
+                new MilestoneWithDeadline(1, "1.14.10", LocalDate.of(2026, 11, 10)));
+
+        trainNotifications.send();
+
+        // One command per message, all of them in the thread of the train
+        then(wm1.findAll(
+                postRequestedFor(urlPathEqualTo("/")).withQueryParam("threadKey", matching("release-train-.*"))))
+            .extracting(request -> JsonCodec.readText(request.getBodyAsString(), "text"))
+            .containsExactlyInAnyOrder("micrometer-announcing 1.14.9", "micrometer-planning 1.14.10 on November 10",
+                    "micrometer-announcing 1.15.0", "micrometer-tracing-announcing 1.5.0");
+        wm1.verify(1, postRequestedFor(urlEqualTo("/xrpc/com.atproto.server.createSession")));
+        wm1.verify(1, postRequestedFor(urlEqualTo("/xrpc/com.atproto.repo.createRecord"))
+            .withRequestBody(
+                    matchingJsonPath("$.record.text", containing("micrometer 1.14.9, 1.15.0\ntracing 1.5.0"))));
+    }
+
+    @Test
+    void should_send_notifications_of_released_versions_when_the_train_fails() {
+        thenThrownBy(() -> trainNotifications.sendAfter(() -> {
+            trainNotifications.add("micrometer", "v1.15.0", null);
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        wm1.verify(1, postRequestedFor(urlPathEqualTo("/"))
+            .withRequestBody(equalToJson("{\"text\": \"micrometer-announcing 1.15.0\"}")));
+        wm1.verify(1, postRequestedFor(urlEqualTo("/xrpc/com.atproto.repo.createRecord")));
+    }
+
+    @Test
+    void should_not_send_notifications_when_nothing_got_released() {
+        trainNotifications.sendAfter(() -> {
+        });
+
+        NotificationSenderTests.assertThatNoNotificationGotSent(wm1);
+    }
+
+}
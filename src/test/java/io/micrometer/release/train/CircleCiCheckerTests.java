@@ -15,8 +15,6 @@
  */
 package io.micrometer.release.train;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -24,13 +22,23 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest.Builder;
+import java.time.Duration;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 
 class CircleCiCheckerTests {
 
+    private static final String PIPELINES_URL = "/api/v2/project/github/micrometer-metrics/micrometer/pipeline";
+
+    private static final String TAGGED_PIPELINE = "5034460f-c7c4-4c43-9457-de07e2029e7b";
+
     @RegisterExtension
     static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
 
@@ -42,7 +50,7 @@ class CircleCiCheckerTests {
     }
 
     @Test
-    void should_return_false_when_not_failing_but_not_successful_workflow_steps()
+    void should_return_false_when_workflow_steps_are_still_running_at_the_deadline()
             throws IOException, InterruptedException {
         CircleCiChecker checker = getChecker("in-progress", wm1.url("/api/v2/"));
 
@@ -51,6 +59,31 @@ class CircleCiCheckerTests {
             .isFalse();
     }
 
+    @Test
+    void should_wait_for_running_workflow_steps_to_complete() throws IOException, InterruptedException {
+        CircleCiChecker checker = getChecker("in-progress", wm1.url("/api/v2/"));
+        wm1.stubFor(get("/api/v2/pipeline/in-progress/workflow").inScenario("build")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withBodyFile("circleci_pipeline_in_progress_workflow_body.json"))
+            .willSetStateTo("finished"));
+        wm1.stubFor(get("/api/v2/pipeline/in-progress/workflow").inScenario("build")
+            .whenScenarioStateIs("finished")
+            .willReturn(aResponse().withBodyFile("circleci_pipeline_workflow_body.json")));
+
+        then(checker.checkBuildStatus("1.14.9")).as("Workflow steps completed successfully after a while").isTrue();
+        wm1.verify(2, getRequestedFor(urlEqualTo("/api/v2/pipeline/in-progress/workflow")));
+    }
+
+    @Test
+    void should_share_pipeline_index_between_versions() throws IOException, InterruptedException {
+        CircleCiChecker checker = getChecker("success", wm1.url("/api/v2/"));
+
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+
+        wm1.verify(1, getRequestedFor(urlEqualTo("/api/v2/project/github/micrometer-metrics/micrometer/pipeline")));
+    }
+
     @Test
     void should_throw_exception_when_no_matching_tag() {
         CircleCiChecker checker = getChecker("success", wm1.url("/api/v2/"));
@@ -69,9 +102,66 @@ class CircleCiCheckerTests {
             .hasMessageContaining("Workflow [deploy] failed!");
     }
 
+    @Test
+    void should_page_until_reaching_pipelines_indexed_by_the_previous_refresh()
+            throws IOException, InterruptedException {
+        CircleCiChecker checker = getChecker("paged", wm1.url("/api/v2/"), Duration.ofSeconds(5));
+        stubNewestPipelines("old", "new-1", "2");
+        stubPipelinesPage("2", "new-2", "3");
+        stubPipelinesPage("3", "{\"id\":\"" + TAGGED_PIPELINE + "\",\"vcs\":{\"tag\":\"v1.14.9\"}}", "4");
+        stubPipelinesPage("4", "old", null);
+
+        then(checker.checkBuildStatus("1.14.9")).as("Found the pipeline on the third new page").isTrue();
+        wm1.verify(1, getRequestedFor(urlEqualTo(PIPELINES_URL + "?page-token=4")));
+    }
+
+    @Test
+    void should_continue_where_a_refresh_stopped_at_the_page_limit() throws IOException, InterruptedException {
+        CircleCiChecker checker = getChecker("paged", wm1.url("/api/v2/"), Duration.ofSeconds(5));
+        int taggedPage = CircleCiChecker.MAX_PAGES_PER_REFRESH + 1;
+        stubNewestPipelines("old", "new-1", "2");
+        for (int page = 2; page < taggedPage; page++) {
+            stubPipelinesPage(String.valueOf(page), "new-" + page, String.valueOf(page + 1));
+        }
+        stubPipelinesPage(String.valueOf(taggedPage),
+                "{\"id\":\"" + TAGGED_PIPELINE + "\",\"vcs\":{\"tag\":\"v1.14.9\"}}",
+                String.valueOf(taggedPage + 1));
+        stubPipelinesPage(String.valueOf(taggedPage + 1), "old", null);
+
+        then(checker.checkBuildStatus("1.14.9")).as("Found the pipeline behind the page limit").isTrue();
+        wm1.verify(1, getRequestedFor(urlEqualTo(PIPELINES_URL + "?page-token=" + taggedPage)));
+    }
+
+    // The first refresh only sees the old pipeline, the next ones the new pipelines
+    private static void stubNewestPipelines(String oldPipeline, String newPipeline, String nextPageToken) {
+        wm1.stubFor(get(PIPELINES_URL).inScenario("pipelines")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withBody(pipelinesPage(oldPipeline, null)))
+            .willSetStateTo("new pipelines"));
+        wm1.stubFor(get(PIPELINES_URL).inScenario("pipelines")
+            .whenScenarioStateIs("new pipelines")
+            .willReturn(aResponse().withBody(pipelinesPage(newPipeline, nextPageToken))));
+    }
+
+    private static void stubPipelinesPage(String pageToken, String pipeline, String nextPageToken) {
+        wm1.stubFor(get(PIPELINES_URL + "?page-token=" + pageToken)
+            .willReturn(aResponse().withBody(pipelinesPage(pipeline, nextPageToken))));
+    }
+
+    // a pipeline is either its id or its JSON
+    private static String pipelinesPage(String pipeline, String nextPageToken) {
+        String item = pipeline.startsWith("{") ? pipeline : "{\"id\":\"" + pipeline + "\"}";
+        String token = nextPageToken != null ? "\"" + nextPageToken + "\"" : "null";
+        return "{\"items\":[" + item + "],\"next_page_token\":" + token + "}";
+    }
+
     static CircleCiChecker getChecker(String status, String url) {
-        return new CircleCiChecker("foo", "micrometer-metrics/micrometer", HttpClient.newBuilder().build(),
-                new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false), url, 1, 1) {
+        return getChecker(status, url, Duration.ofMillis(500));
+    }
+
+    static CircleCiChecker getChecker(String status, String url, Duration timeout) {
+        return new CircleCiChecker("foo", "micrometer-metrics/micrometer", HttpClient.newBuilder().build(), url,
+                Duration.ofMillis(10), Duration.ofMillis(50), timeout) {
             @Override
             Builder requestBuilder(String workflowUrl) {
                 return super.requestBuilder(workflowUrl).header("Test-Status", status);
@@ -61,8 +61,7 @@ class DependencyVerifierTests {
 
     Git git = mock();
 
-    DependencyVerifier verifier = new DependencyVerifier(processRunner, ProjectTrainReleaseWorkflow.OBJECT_MAPPER, git,
-            1, 5, 1, TimeUnit.MILLISECONDS) {
+    DependencyVerifier verifier = new DependencyVerifier(processRunner, git, 1, 5, 1, TimeUnit.MILLISECONDS) {
         @Override
         GradleParser gradleParser(ProcessRunner branchProcessRunner) {
             return new TestGradleParser();
@@ -28,13 +28,25 @@ class GitTests {
     ProcessRunner processRunner = mock();
 
     @Test
-    void should_checkout_tag() {
+    void should_checkout_tag_to_its_own_worktree() {
         Git git = new Git(processRunner);
 
-        git.changeTag("v1.2.3");
+        File worktree = git.addWorktree("v1.2.3");
 
-        then(processRunner).should().run("git", "fetch", "origin", "refs/tags/v1.2.3");
-        then(processRunner).should().run("git", "checkout", "FETCH_HEAD");
+        then(processRunner).should().run("git", "fetch", "origin", "+refs/tags/v1.2.3:refs/tags/v1.2.3");
+        then(processRunner).should()
+            .run("git", "worktree", "add", "--detach", worktree.getAbsolutePath(), "refs/tags/v1.2.3");
+        assertThat(worktree.getName()).startsWith("worktree-v1.2.3-");
+    }
+
+    @Test
+    void should_remove_worktree() {
+        Git git = new Git(processRunner);
+        File worktree = new File("worktree-v1.2.3");
+
+        git.removeWorktree(worktree);
+
+        then(processRunner).should().run("git", "worktree", "remove", "--force", worktree.getAbsolutePath());
     }
 
     @Test
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 Broadcom.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.release.train;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Set;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class GithubChecksCheckerTests {
+
+    private static final String BRANCH_BUILD = "2026-03-02T09:00:00Z";
+
+    private static final String PUBLISHED_AT = "2026-03-02T10:00:00Z";
+
+    private static final String TAG_BUILD = "2026-03-02T10:01:00Z";
+
+    @RegisterExtension
+    static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+    GithubChecksChecker checker = new GithubChecksChecker(HttpClient.newHttpClient(), wm1.baseUrl(), "token",
+            "micrometer-metrics/micrometer", Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(500),
+            Set.of());
+
+    @Test
+    void should_return_true_when_all_checks_of_the_tag_succeeded() throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        givenStatuses("success");
+        givenCheckRuns("completed", "success");
+
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+    }
+
+    @Test
+    void should_wait_for_pending_checks() throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        givenStatuses("success");
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .inScenario("build")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(okJson(checkRuns("in_progress", null, TAG_BUILD)))
+            .willSetStateTo("finished"));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .inScenario("build")
+            .whenScenarioStateIs("finished")
+            .willReturn(okJson(checkRuns("completed", "success", TAG_BUILD))));
+
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+    }
+
+    @Test
+    void should_return_false_when_checks_are_still_running_at_the_deadline() throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        givenStatuses("pending");
+        givenCheckRuns("completed", "success");
+
+        then(checker.checkBuildStatus("1.14.9")).isFalse();
+    }
+
+    @Test
+    void should_throw_exception_when_a_check_failed() {
+        givenTagPointsToSha();
+        givenStatuses("pending");
+        givenCheckRuns("completed", "failure");
+
+        thenThrownBy(() -> checker.checkBuildStatus("1.14.9")).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Check run [build] of tag [v1.14.9] failed!");
+    }
+
+    @Test
+    void should_throw_exception_when_a_commit_status_failed() {
+        givenTagPointsToSha();
+        givenStatuses("failure");
+        givenCheckRuns("in_progress", null);
+
+        thenThrownBy(() -> checker.checkBuildStatus("1.14.9")).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Commit status [ci/circleci: build] of tag [v1.14.9] failed!");
+    }
+
+    @Test
+    void should_wait_for_the_tag_build_when_branch_checks_already_succeeded() throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .inScenario("tag build")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(okJson(statuses("success", BRANCH_BUILD)))
+            .willSetStateTo("started"));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .inScenario("tag build")
+            .whenScenarioStateIs("started")
+            .willReturn(okJson(statuses("pending", TAG_BUILD)))
+            .willSetStateTo("finished"));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .inScenario("tag build")
+            .whenScenarioStateIs("finished")
+            .willReturn(okJson(statuses("success", TAG_BUILD))));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .willReturn(okJson(checkRuns("completed", "success", TAG_BUILD))));
+
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+
+        wm1.verify(3, getRequestedFor(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status")));
+    }
+
+    @Test
+    void should_ignore_failed_checks_of_branch_builds() throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .willReturn(okJson(statuses("success", TAG_BUILD))));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .willReturn(okJson(checkRunsOf(checkRun("build", "completed", "failure", BRANCH_BUILD),
+                    checkRun("build", "completed", "success", TAG_BUILD)))));
+
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+    }
+
+    @Test
+    void should_wait_for_checks_that_the_branch_build_reported_to_report_for_the_tag()
+            throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        givenCheckRuns("completed", "success");
+        // CircleCI reports the deploy job only once the build job succeeded
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .inScenario("jobs")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(okJson(combinedStatus("success", status("ci/circleci: build", "success", TAG_BUILD),
+                    status("ci/circleci: deploy", "success", BRANCH_BUILD))))
+            .willSetStateTo("deploying"));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .inScenario("jobs")
+            .whenScenarioStateIs("deploying")
+            .willReturn(okJson(combinedStatus("pending", status("ci/circleci: build", "success", TAG_BUILD),
+                    status("ci/circleci: deploy", "pending", TAG_BUILD))))
+            .willSetStateTo("deployed"));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .inScenario("jobs")
+            .whenScenarioStateIs("deployed")
+            .willReturn(okJson(combinedStatus("success", status("ci/circleci: build", "success", TAG_BUILD),
+                    status("ci/circleci: deploy", "success", TAG_BUILD)))));
+
+        then(checker.checkBuildStatus("1.14.9")).isTrue();
+
+        wm1.verify(3, getRequestedFor(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status")));
+    }
+
+    @Test
+    void should_return_false_when_a_configured_check_never_reported_for_the_tag()
+            throws IOException, InterruptedException {
+        GithubChecksChecker checker = new GithubChecksChecker(HttpClient.newHttpClient(), wm1.baseUrl(), "token",
+                "micrometer-metrics/micrometer", Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(500),
+                GithubChecksChecker.requiredChecks(" ci/circleci: build, ci/circleci: deploy ,"));
+        givenTagPointsToSha();
+        givenStatuses("success");
+        givenCheckRuns("completed", "success");
+
+        then(checker.checkBuildStatus("1.14.9")).isFalse();
+    }
+
+    @Test
+    void should_fetch_all_pages_of_check_runs() throws IOException, InterruptedException {
+        givenTagPointsToSha();
+        givenStatuses("success");
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .withQueryParam("page", absent())
+            .willReturn(okJson(checkRuns("completed", "success", TAG_BUILD)).withHeader("Link",
+                    "<" + wm1.baseUrl() + "/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"
+                            + "?per_page=100&page=2>; rel=\"last\"")));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .withQueryParam("page", equalTo("2"))
+            .willReturn(okJson(checkRuns("completed", "failure", TAG_BUILD))));
+
+        thenThrownBy(() -> checker.checkBuildStatus("1.14.9")).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Check run [build] of tag [v1.14.9] failed!");
+    }
+
+    @Test
+    void should_reject_unknown_ci_gate() {
+        thenThrownBy(() -> BuildStatusChecker.forProject("micrometer-metrics/micrometer", "github-actions"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Unknown CI gate [github-actions]");
+    }
+
+    @Test
+    void should_throw_exception_when_tag_cannot_be_found() {
+        thenThrownBy(() -> checker.checkBuildStatus("1.0.0-notFound")).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Can't find the commit of tag [v1.0.0-notFound]");
+    }
+
+    private void givenTagPointsToSha() {
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/v1.14.9"))
+            .willReturn(ok("abc123")));
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/releases/tags/v1.14.9"))
+            .willReturn(okJson("""
+                    {"tag_name": "v1.14.9", "published_at": "%s"}""".formatted(PUBLISHED_AT))));
+    }
+
+    private void givenStatuses(String state) {
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/status"))
+            .willReturn(okJson(statuses(state, TAG_BUILD))));
+    }
+
+    private void givenCheckRuns(String status, String conclusion) {
+        wm1.stubFor(get(urlPathEqualTo("/repos/micrometer-metrics/micrometer/commits/abc123/check-runs"))
+            .willReturn(okJson(checkRuns(status, conclusion, TAG_BUILD))));
+    }
+
+    private static String statuses(String state, String createdAt) {
+        return combinedStatus(state, status("ci/circleci: build", state, createdAt));
+    }
+
+    private static String combinedStatus(String state, String... statuses) {
+        return """
+                {"state": "%s", "total_count": %d, "statuses": [%s]}"""
+            .formatted(state, statuses.length, String.join(", ", statuses));
+    }
+
+    private static String status(String context, String state, String createdAt) {
+        return """
+                {"context": "%s", "state": "%s", "created_at": "%s"}"""
+            .formatted(context, state, createdAt);
+    }
+
+    private static String checkRuns(String status, String conclusion, String startedAt) {
+        return checkRunsOf(checkRun("build", status, conclusion, startedAt));
+    }
+
+    private static String checkRunsOf(String... runs) {
+        return """
+                {"total_count": %d, "check_runs": [%s]}"""
+            .formatted(runs.length, String.join(", ", runs));
+    }
+
+    private static String checkRun(String name, String status, String conclusion, String startedAt) {
+        return """
+                {"name": "%s", "status": "%s", "conclusion": %s, "started_at": "%s"}"""
+            .formatted(name, status, conclusion != null ? "\"" + conclusion + "\"" : "null", startedAt);
+    }
+
+}
@@ -15,24 +15,31 @@
  */
 package io.micrometer.release.train;
 
+import io.micrometer.release.train.TrainOptions.ProjectSetup;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 
 class MavenCentralSyncCheckerTests {
 
     @RegisterExtension
     static WireMockExtension wm1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
 
-    MavenCentralSyncChecker mavenCentralSyncChecker = new MavenCentralSyncChecker(wm1.url("/maven2/io/micrometer/"), 1,
-            1);
+    MavenCentralSyncChecker mavenCentralSyncChecker = new MavenCentralSyncChecker(HttpClient.newHttpClient(),
+            wm1.url("/maven2/io/micrometer/"), Duration.ofMillis(500), Duration.ofMillis(10), Duration.ofMillis(50));
 
     @Test
     void should_check_when_artifact_present() {
@@ -41,20 +48,131 @@ class MavenCentralSyncCheckerTests {
         wm1.stubFor(head(urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/"))
             .willReturn(aResponse().withStatus(200)));
 
-        mavenCentralSyncChecker.checkIfArtifactsAreInCentral(List.of("1.13.3", "1.14.9"),
-                TestProjectSetup.forMicrometer("1.13.3", "1.14.9"));
+        ProjectSetup projectSetup = TestProjectSetup.forMicrometer("1.13.3", "1.14.9");
+
+        CompletableFuture
+            .allOf(mavenCentralSyncChecker.awaitInCentral("1.13.3", "1.13.x", projectSetup),
+                    mavenCentralSyncChecker.awaitInCentral("1.14.9", "main", projectSetup))
+            .join();
 
         wm1.verify(WireMock.headRequestedFor(WireMock.urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.13.3/")));
         wm1.verify(WireMock.headRequestedFor(WireMock.urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")));
     }
 
+    @Test
+    void should_wait_for_artifact_to_get_synced() {
+        wm1.stubFor(head(urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")).inScenario("sync")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(404))
+            .willSetStateTo("unavailable"));
+        wm1.stubFor(head(urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")).inScenario("sync")
+            .whenScenarioStateIs("unavailable")
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("synced"));
+        wm1.stubFor(head(urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")).inScenario("sync")
+            .whenScenarioStateIs("synced")
+            .willReturn(aResponse().withStatus(200)));
+
+        mavenCentralSyncChecker.awaitInCentral("1.14.9", "main", TestProjectSetup.forMicrometer("1.14.9")).join();
+
+        wm1.verify(3, WireMock.headRequestedFor(WireMock.urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")));
+    }
+
     @Test
     void should_fail_when_artifact_missing_within_timeout() {
         BDDAssertions
-            .thenThrownBy(() -> mavenCentralSyncChecker.checkIfArtifactsAreInCentral(List.of("1.13.3", "1.14.9"),
-                    TestProjectSetup.forMicrometer("1.13.3", "1.14.9")))
+            .thenThrownBy(() -> mavenCentralSyncChecker
+                .awaitInCentral("1.14.9", "main", TestProjectSetup.forMicrometer("1.14.9"))
+                .join())
             .hasMessageContaining("not found in Maven Central")
             .hasRootCauseInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    void should_stop_polling_once_cancelled() throws InterruptedException {
+        wm1.stubFor(head(urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/"))
+            .willReturn(aResponse().withStatus(404)));
+
+        mavenCentralSyncChecker.awaitInCentral("1.14.9", "main", TestProjectSetup.forMicrometer("1.14.9"))
+            .cancel(true);
+        // Enough for a few more polls if they weren't stopped
+        Thread.sleep(300);
+
+        wm1.verify(1, headRequestedFor(urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")));
+    }
+
+    @Test
+    void should_pass_when_any_endpoint_has_the_artifact() {
+        MavenCentralSyncChecker hedgedChecker = new MavenCentralSyncChecker(HttpClient.newHttpClient(),
+                List.of(wm1.url("/cdn/io/micrometer/"), wm1.url("/origin/io/micrometer/")), null,
+                Duration.ofMillis(500), Duration.ofMillis(10), Duration.ofMillis(50));
+        wm1.stubFor(head(urlEqualTo("/cdn/io/micrometer/micrometer-bom/1.14.9/"))
+            .willReturn(aResponse().withStatus(404)));
+        wm1.stubFor(head(urlEqualTo("/origin/io/micrometer/micrometer-bom/1.14.9/"))
+            .willReturn(aResponse().withStatus(200)));
+
+        hedgedChecker.awaitInCentral("1.14.9", "main", TestProjectSetup.forMicrometer("1.14.9")).join();
+
+        wm1.verify(1, headRequestedFor(urlEqualTo("/origin/io/micrometer/micrometer-bom/1.14.9/"))
+            .withHeader("Cache-Control", equalTo("no-cache")));
+        wm1.verify(1, headRequestedFor(urlEqualTo("/cdn/io/micrometer/micrometer-bom/1.14.9/"))
+            .withHeader("Pragma", equalTo("no-cache")));
+    }
+
+    @Test
+    void should_wait_for_all_published_modules_including_new_ones() {
+        MavenCentralSyncChecker allModulesChecker = new MavenCentralSyncChecker(HttpClient.newHttpClient(),
+                List.of(wm1.url("/maven2/io/micrometer/")),
+                branch -> List.of("micrometer-core", "micrometer-registry-new"), Duration.ofMillis(500),
+                Duration.ofMillis(10), Duration.ofMillis(50));
+        wm1.stubFor(get(urlEqualTo("/maven2/io/micrometer/micrometer-core/maven-metadata.xml"))
+            .willReturn(aResponse().withStatus(200).withBody(metadata("1.14.8", "1.14.9"))));
+        wm1.stubFor(get(urlEqualTo("/maven2/io/micrometer/micrometer-registry-new/maven-metadata.xml"))
+            .inScenario("sync")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(404))
+            .willSetStateTo("synced"));
+        wm1.stubFor(get(urlEqualTo("/maven2/io/micrometer/micrometer-registry-new/maven-metadata.xml"))
+            .inScenario("sync")
+            .whenScenarioStateIs("synced")
+            .willReturn(aResponse().withStatus(200).withBody(metadata("1.14.9"))));
+
+        allModulesChecker.awaitInCentral("1.14.9", "main", TestProjectSetup.forMicrometer("1.14.9")).join();
+
+        wm1.verify(1, getRequestedFor(urlEqualTo("/maven2/io/micrometer/micrometer-core/maven-metadata.xml"))
+            .withHeader("Cache-Control", equalTo("no-cache")));
+        wm1.verify(2, getRequestedFor(urlEqualTo("/maven2/io/micrometer/micrometer-registry-new/maven-metadata.xml")));
+        wm1.verify(0, headRequestedFor(urlPathMatching("/maven2/.*")));
+    }
+
+    @Test
+    void should_not_find_version_missing_from_the_metadata() {
+        MavenCentralSyncChecker allModulesChecker = new MavenCentralSyncChecker(HttpClient.newHttpClient(),
+                List.of(wm1.url("/maven2/io/micrometer/")), branch -> List.of("micrometer-core"),
+                Duration.ofMillis(100), Duration.ofMillis(10), Duration.ofMillis(50));
+        wm1.stubFor(get(urlEqualTo("/maven2/io/micrometer/micrometer-core/maven-metadata.xml"))
+            .willReturn(aResponse().withStatus(200).withBody(metadata("1.14.8", "1.14.90"))));
+
+        BDDAssertions
+            .thenThrownBy(() -> allModulesChecker
+                .awaitInCentral("1.14.9", "main", TestProjectSetup.forMicrometer("1.14.9"))
+                .join())
+            .hasMessageContaining("Version 1.14.9 not found in Maven Central")
+            .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static String metadata(String... versions) {
+        return """
+                <metadata>
+                  <groupId>io.micrometer</groupId>
+                  <versioning>
+                    <versions>
+                      %s
+                    </versions>
+                  </versioning>
+                </metadata>""".formatted(Arrays.stream(versions)
+            .map(version -> "<version>" + version + "</version>")
+            .collect(Collectors.joining("\n")));
+    }
+
 }
@@ -16,13 +16,28 @@
 package io.micrometer.release.train;
 
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 import org.junit.jupiter.api.Test;
-import org.mockito.InOrder;
 
-import java.util.List;
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
-import static org.mockito.Mockito.inOrder;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class PostReleaseTaskSchedulerTests {
 
@@ -30,19 +45,189 @@ class PostReleaseTaskSchedulerTests {
 
     Git git = mock();
 
-    PostReleaseTaskScheduler scheduler = new PostReleaseTaskScheduler(postReleaseWorkflow, git);
+    TrainNotifications trainNotifications = mock();
+
+    PostReleaseTaskScheduler scheduler = new PostReleaseTaskScheduler(postReleaseWorkflow, git, 3);
+
+    @Test
+    void should_run_post_release_tasks_in_a_worktree_per_version() {
+        File worktree100 = new File("worktree-v1.0.0");
+        File worktree110 = new File("worktree-v1.1.0");
+        File worktree120 = new File("worktree-v1.2.0");
+        given(git.addWorktree("v1.0.0")).willReturn(worktree100);
+        given(git.addWorktree("v1.1.0")).willReturn(worktree110);
+        given(git.addWorktree("v1.2.0")).willReturn(worktree120);
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+
+        scheduler.runPostReleaseTasks(released("1.2.0", "1.0.0", "1.1.0"), trainNotifications);
+
+        verify(postReleaseWorkflow).inDirectory(worktree100);
+        verify(postReleaseWorkflow).inDirectory(worktree110);
+        verify(postReleaseWorkflow).inDirectory(worktree120);
+        verify(postReleaseWorkflow).run(eq("v1.0.0"), isNull(), any(), any(), eq(trainNotifications));
+        verify(postReleaseWorkflow).run(eq("v1.1.0"), eq("v1.0.0"), any(), any(), eq(trainNotifications));
+        verify(postReleaseWorkflow).run(eq("v1.2.0"), eq("v1.1.0"), any(), any(), eq(trainNotifications));
+        verify(git).removeWorktree(worktree100);
+        verify(git).removeWorktree(worktree110);
+        verify(git).removeWorktree(worktree120);
+    }
+
+    @Test
+    void should_run_versions_concurrently() {
+        given(git.addWorktree(any())).willAnswer(invocation -> new File("worktree-" + invocation.getArgument(0)));
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        CountDownLatch allStarted = new CountDownLatch(3);
+        willAnswer(invocation -> {
+            allStarted.countDown();
+            // would time out if versions were processed one after another
+            then(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            invocation.<CompletableFuture<Void>>getArgument(3).complete(null);
+            return null;
+        }).given(postReleaseWorkflow).run(any(), any(), any(), any(), any());
+
+        scheduler.runPostReleaseTasks(released("1.0.0", "1.1.0", "1.2.0"), trainNotifications);
+
+        then(allStarted.getCount()).isZero();
+    }
+
+    @Test
+    void should_run_post_release_tasks_of_a_version_as_soon_as_it_is_released() {
+        given(git.addWorktree(any())).willAnswer(invocation -> new File("worktree-" + invocation.getArgument(0)));
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        CompletableFuture<Void> release100 = new CompletableFuture<>();
+        willAnswer(invocation -> {
+            // 1.1.0 doesn't wait for the release of 1.0.0, only for its release notes
+            release100.complete(null);
+            invocation.<CompletableFuture<Void>>getArgument(2).join();
+            invocation.<CompletableFuture<Void>>getArgument(3).complete(null);
+            return null;
+        }).given(postReleaseWorkflow).run(eq("v1.1.0"), any(), any(), any(), any());
+        willAnswer(invocation -> {
+            invocation.<CompletableFuture<Void>>getArgument(3).complete(null);
+            return null;
+        }).given(postReleaseWorkflow).run(eq("v1.0.0"), any(), any(), any(), any());
+        Map<String, CompletableFuture<Void>> releasedVersions = new LinkedHashMap<>();
+        releasedVersions.put("1.0.0", release100);
+        releasedVersions.put("1.1.0", CompletableFuture.completedFuture(null));
+
+        scheduler.runPostReleaseTasks(releasedVersions, trainNotifications);
+
+        verify(postReleaseWorkflow).run(eq("v1.0.0"), isNull(), any(), any(), eq(trainNotifications));
+        verify(postReleaseWorkflow).run(eq("v1.1.0"), eq("v1.0.0"), any(), any(), eq(trainNotifications));
+    }
+
+    @Test
+    void should_not_give_the_last_permit_to_a_version_waiting_for_an_unstarted_version() {
+        given(git.addWorktree(any())).willAnswer(invocation -> new File("worktree-" + invocation.getArgument(0)));
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        willAnswer(invocation -> {
+            invocation.<CompletableFuture<Void>>getArgument(2).join();
+            invocation.<CompletableFuture<Void>>getArgument(3).complete(null);
+            return null;
+        }).given(postReleaseWorkflow).run(any(), any(), any(), any(), any());
+        Map<String, CompletableFuture<Void>> releasedVersions = new LinkedHashMap<>();
+        // 1.0.0 gets released after 1.1.0
+        releasedVersions.put("1.0.0",
+                new CompletableFuture<Void>().completeOnTimeout(null, 100, TimeUnit.MILLISECONDS));
+        releasedVersions.put("1.1.0", CompletableFuture.completedFuture(null));
+        PostReleaseTaskScheduler singlePermitScheduler = new PostReleaseTaskScheduler(postReleaseWorkflow, git, 1);
+
+        then(CompletableFuture
+            .runAsync(() -> singlePermitScheduler.runPostReleaseTasks(releasedVersions, trainNotifications)))
+            .succeedsWithin(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void should_keep_the_last_permit_for_a_version_whose_lower_versions_all_started() {
+        given(git.addWorktree(any())).willAnswer(invocation -> new File("worktree-" + invocation.getArgument(0)));
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        willAnswer(invocation -> {
+            invocation.<CompletableFuture<Void>>getArgument(2).join();
+            invocation.<CompletableFuture<Void>>getArgument(3).complete(null);
+            return null;
+        }).given(postReleaseWorkflow).run(any(), any(), any(), any(), any());
+        Map<String, CompletableFuture<Void>> releasedVersions = new LinkedHashMap<>();
+        // 1.0.0 gets released after all the other versions took their permits
+        releasedVersions.put("1.0.0",
+                new CompletableFuture<Void>().completeOnTimeout(null, 200, TimeUnit.MILLISECONDS));
+        releasedVersions.put("1.1.0", CompletableFuture.completedFuture(null));
+        releasedVersions.put("1.2.0", CompletableFuture.completedFuture(null));
+        releasedVersions.put("1.3.0", CompletableFuture.completedFuture(null));
+
+        then(CompletableFuture.runAsync(() -> scheduler.runPostReleaseTasks(releasedVersions, trainNotifications)))
+            .succeedsWithin(Duration.ofSeconds(5));
+
+        verify(postReleaseWorkflow).run(eq("v1.0.0"), isNull(), any(), any(), eq(trainNotifications));
+        verify(postReleaseWorkflow).run(eq("v1.3.0"), eq("v1.2.0"), any(), any(), eq(trainNotifications));
+    }
 
     @Test
-    void should_schedule_release_tasks() {
-        scheduler.runPostReleaseTasks(List.of("1.0.0", "1.1.0", "1.2.0"));
+    void should_fail_post_release_tasks_of_versions_after_a_failed_release() {
+        given(git.addWorktree(any())).willAnswer(invocation -> new File("worktree-" + invocation.getArgument(0)));
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        willAnswer(invocation -> invocation.<CompletableFuture<Void>>getArgument(2).join())
+            .given(postReleaseWorkflow)
+            .run(eq("v1.1.0"), any(), any(), any(), any());
+        Map<String, CompletableFuture<Void>> releasedVersions = new LinkedHashMap<>();
+        releasedVersions.put("1.0.0", CompletableFuture.failedFuture(new IllegalStateException("CI failed")));
+        releasedVersions.put("1.1.0", CompletableFuture.completedFuture(null));
+
+        thenThrownBy(() -> scheduler.runPostReleaseTasks(releasedVersions, trainNotifications))
+            .hasMessageContaining("CI failed");
+
+        verify(git, never()).addWorktree("v1.0.0");
+        verify(git).removeWorktree(new File("worktree-v1.1.0"));
+    }
+
+    @Test
+    void should_remove_worktrees_when_post_release_task_fails() {
+        File worktree = new File("worktree-v1.0.0");
+        given(git.addWorktree("v1.0.0")).willReturn(worktree);
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        willThrow(new IllegalStateException("boom")).given(postReleaseWorkflow)
+            .run(eq("v1.0.0"), isNull(), any(), any(), any());
+
+        thenThrownBy(() -> scheduler.runPostReleaseTasks(released("1.0.0"), trainNotifications))
+            .hasMessageContaining("boom");
+
+        verify(git).removeWorktree(worktree);
+    }
+
+    @Test
+    void should_keep_the_failure_of_the_post_release_task_when_worktree_cannot_be_removed() {
+        File worktree = new File("worktree-v1.0.0");
+        given(git.addWorktree("v1.0.0")).willReturn(worktree);
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        willThrow(new IllegalStateException("boom")).given(postReleaseWorkflow)
+            .run(eq("v1.0.0"), isNull(), any(), any(), any());
+        willThrow(new IllegalStateException("worktree locked")).given(git).removeWorktree(worktree);
+
+        thenThrownBy(() -> scheduler.runPostReleaseTasks(released("1.0.0"), trainNotifications))
+            .rootCause()
+            .hasMessage("boom")
+            .satisfies(failure -> then(failure.getSuppressed()).singleElement()
+                .extracting(Throwable::getMessage)
+                .isEqualTo("worktree locked"));
+    }
+
+    @Test
+    void should_not_fail_a_post_release_task_when_only_worktree_cannot_be_removed() {
+        File worktree = new File("worktree-v1.0.0");
+        given(git.addWorktree("v1.0.0")).willReturn(worktree);
+        given(postReleaseWorkflow.inDirectory(any())).willReturn(postReleaseWorkflow);
+        willThrow(new IllegalStateException("worktree locked")).given(git).removeWorktree(worktree);
+
+        scheduler.runPostReleaseTasks(released("1.0.0"), trainNotifications);
+
+        verify(postReleaseWorkflow).run(eq("v1.0.0"), isNull(), any(), any(), eq(trainNotifications));
+    }
 
-        InOrder inOrder = inOrder(git, postReleaseWorkflow);
-        inOrder.verify(git).changeTag("v1.0.0");
-        inOrder.verify(postReleaseWorkflow).run("v1.0.0", null);
-        inOrder.verify(git).changeTag("v1.1.0");
-        inOrder.verify(postReleaseWorkflow).run("v1.1.0", "v1.0.0");
-        inOrder.verify(git).changeTag("v1.2.0");
-        inOrder.verify(postReleaseWorkflow).run("v1.2.0", "v1.1.0");
+    private static Map<String, CompletableFuture<Void>> released(String... versions) {
+        Map<String, CompletableFuture<Void>> releasedVersions = new LinkedHashMap<>();
+        for (String version : versions) {
+            releasedVersions.put(version, CompletableFuture.completedFuture(null));
+        }
+        return releasedVersions;
     }
 
 }
@@ -17,18 +17,21 @@ package io.micrometer.release.train;
 
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.release.common.GithubPaginator;
+import io.micrometer.release.common.GithubReleasesClient;
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.Arrays;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
-import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
 
 class ProjectTrainReleaseWorkflowAcceptanceTests {
@@ -50,26 +53,42 @@ class ProjectTrainReleaseWorkflowAcceptanceTests {
 
     DependencyVerifier dependencyVerifier = mock();
 
-    PostReleaseWorkflow postReleaseWorkflow = mock();
+    PostReleaseWorkflow postReleaseWorkflow = mock(
+            invocation -> invocation.getMethod().getName().equals("inDirectory") ? invocation.getMock() : null);
 
     CircleCiChecker circleCiChecker = CircleCiCheckerTests.getChecker("success", wm1.url("/api/v2/"));
 
-    MavenCentralSyncChecker mavenCentralSyncChecker = new MavenCentralSyncChecker(wm1.url("/maven2/io/micrometer/"), 3,
-            1);
+    MavenCentralSyncChecker mavenCentralSyncChecker = new MavenCentralSyncChecker(HttpClient.newHttpClient(),
+            wm1.url("/maven2/io/micrometer/"), Duration.ofSeconds(1), Duration.ofMillis(10), Duration.ofMillis(50));
 
-    ReleaseScheduler releaseScheduler = new ReleaseScheduler(circleCiChecker, processRunner, dependencyVerifier);
+    GithubReleasesClient githubReleasesClient = new GithubReleasesClient(HttpClient.newHttpClient(), wm1.baseUrl(),
+            "foo");
+
+    ReleaseScheduler releaseScheduler = new ReleaseScheduler(circleCiChecker, processRunner, dependencyVerifier,
+            githubReleasesClient);
 
     PostReleaseTaskScheduler postReleaseTaskScheduler = new PostReleaseTaskScheduler(postReleaseWorkflow,
             new Git(processRunner));
 
-    VersionToBranchConverter versionToBranchConverter = new VersionToBranchConverter("foo",
-            wm1.url("/repos/micrometer-metrics/micrometer/branches/"), HttpClient.newBuilder().build());
+    VersionToBranchConverter versionToBranchConverter = new VersionToBranchConverter(
+            new GithubPaginator(HttpClient.newBuilder().build(), wm1.baseUrl(), "foo", 1),
+            "micrometer-metrics/micrometer");
+
+    TrainNotifications projectNotifications = mock(invocation -> {
+        if (invocation.getMethod().getName().equals("sendAfter")) {
+            invocation.<Runnable>getArgument(0).run();
+        }
+        return null;
+    });
 
     ProjectTrainReleaseWorkflow workflow = new ProjectTrainReleaseWorkflow(releaseScheduler, versionToBranchConverter,
-            postReleaseTaskScheduler, mavenCentralSyncChecker);
+            postReleaseTaskScheduler, mavenCentralSyncChecker, projectNotifications);
 
     @Test
     void should_perform_the_release() {
+        wm1.stubFor(WireMock.post("/repos/micrometer-metrics/micrometer/releases")
+            .willReturn(WireMock.created().withBody("{\"id\":1,\"tag_name\":\"v1.14.9\"}")));
+
         workflow.run(TestProjectSetup.forMicrometer("1.14.9"));
 
         thenGithubReleaseAndTagGotCreated();
@@ -86,8 +105,10 @@ class ProjectTrainReleaseWorkflowAcceptanceTests {
         wm1.verify(WireMock.headRequestedFor(WireMock.urlEqualTo("/maven2/io/micrometer/micrometer-bom/1.14.9/")));
     }
 
-    private void thenGithubReleaseAndTagGotCreated() {
-        then(processRunner).should().run("gh", "release", "create", "v1.14.9", "--target", "1.14.x", "-t", "1.14.9");
+    private static void thenGithubReleaseAndTagGotCreated() {
+        wm1.verify(WireMock.postRequestedFor(WireMock.urlEqualTo("/repos/micrometer-metrics/micrometer/releases"))
+            .withRequestBody(WireMock
+                .equalToJson("{\"tag_name\":\"v1.14.9\",\"target_commitish\":\"1.14.x\",\"name\":\"1.14.9\"}")));
     }
 
 }
@@ -15,16 +15,28 @@ package io.micrometer.release.train;
 
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.single.PostReleaseWorkflow;
+import io.micrometer.release.single.TrainNotifications;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
+import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.BDDAssertions.thenNoException;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 
 class ProjectTrainReleaseWorkflowTests {
 
@@ -36,8 +48,12 @@ class ProjectTrainReleaseWorkflowTests {
 
     MavenCentralSyncChecker mavenCentralSyncChecker = mock();
 
+    TrainNotifications trainNotifications = mock();
+
+    TrainNotifications projectNotifications = mock();
+
     ProjectTrainReleaseWorkflow workflow = new ProjectTrainReleaseWorkflow(releaseScheduler, versionToBranchConverter,
-            postReleaseTaskScheduler, mavenCentralSyncChecker);
+            postReleaseTaskScheduler, mavenCentralSyncChecker, projectNotifications);
 
     @Test
     void should_construct_instance() {
@@ -51,12 +67,75 @@ class ProjectTrainReleaseWorkflowTests {
         Map<String, String> versionToBranch = Map.of("1.0.0", "v1.0.0", "1.1.0", "main");
         given(versionToBranchConverter.convert(versions)).willReturn(versionToBranch);
         ProjectSetup projectSetup = TestProjectSetup.forMicrometer("1.0.0", "1.1.0");
+        given(releaseScheduler.releaseAndCheckCi(any(), any(), eq(projectSetup)))
+            .willReturn(CompletableFuture.completedFuture(null));
+        given(mavenCentralSyncChecker.awaitInCentral(any(), any(), eq(projectSetup)))
+            .willReturn(CompletableFuture.completedFuture(null));
+        willAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).given(projectNotifications).sendAfter(any());
 
         workflow.run(projectSetup);
 
-        then(releaseScheduler).should().runReleaseAndCheckCi(versionToBranch, projectSetup);
-        then(postReleaseTaskScheduler).should().runPostReleaseTasks(versions);
-        then(mavenCentralSyncChecker).should().checkIfArtifactsAreInCentral(versions, projectSetup);
+        then(releaseScheduler).should().releaseAndCheckCi("1.0.0", "v1.0.0", projectSetup);
+        then(releaseScheduler).should().releaseAndCheckCi("1.1.0", "main", projectSetup);
+        then(postReleaseTaskScheduler).should()
+            .runPostReleaseTasks(argThat((Map<String, CompletableFuture<Void>> released) -> released.keySet()
+                .equals(versionToBranch.keySet())), eq(projectNotifications));
+        then(mavenCentralSyncChecker).should().awaitInCentral("1.0.0", "v1.0.0", projectSetup);
+        then(mavenCentralSyncChecker).should().awaitInCentral("1.1.0", "main", projectSetup);
+    }
+
+    @Test
+    void should_check_maven_central_of_a_version_without_waiting_for_other_versions() {
+        List<String> versions = List.of("1.0.0", "1.1.0");
+        given(versionToBranchConverter.convert(versions)).willReturn(Map.of("1.0.0", "1.0.x", "1.1.0", "main"));
+        ProjectSetup projectSetup = TestProjectSetup.forMicrometer("1.0.0", "1.1.0");
+        CompletableFuture<Void> slowRelease = new CompletableFuture<>();
+        given(releaseScheduler.releaseAndCheckCi("1.0.0", "1.0.x", projectSetup)).willReturn(slowRelease);
+        given(releaseScheduler.releaseAndCheckCi("1.1.0", "main", projectSetup))
+            .willReturn(CompletableFuture.completedFuture(null));
+        given(mavenCentralSyncChecker.awaitInCentral(any(), any(), eq(projectSetup)))
+            .willReturn(CompletableFuture.completedFuture(null));
+        willAnswer(invocation -> {
+            // 1.1.0 went through CI while 1.0.0 is still building
+            then(mavenCentralSyncChecker).should().awaitInCentral("1.1.0", "main", projectSetup);
+            then(mavenCentralSyncChecker).should(never()).awaitInCentral("1.0.0", "1.0.x", projectSetup);
+            slowRelease.complete(null);
+            return null;
+        }).given(postReleaseTaskScheduler).runPostReleaseTasks(anyMap(), any());
+
+        workflow.run(projectSetup, trainNotifications);
+
+        then(mavenCentralSyncChecker).should().awaitInCentral("1.0.0", "1.0.x", projectSetup);
+    }
+
+    @Test
+    void should_only_fail_maven_central_of_versions_that_failed() {
+        List<String> versions = List.of("1.0.0", "1.1.0");
+        given(versionToBranchConverter.convert(versions)).willReturn(Map.of("1.0.0", "1.0.x", "1.1.0", "main"));
+        ProjectSetup projectSetup = TestProjectSetup.forMicrometer("1.0.0", "1.1.0");
+        IllegalStateException releaseFailure = new IllegalStateException("BOOM!");
+        given(releaseScheduler.releaseAndCheckCi("1.0.0", "1.0.x", projectSetup))
+            .willReturn(CompletableFuture.failedFuture(releaseFailure));
+        given(releaseScheduler.releaseAndCheckCi("1.1.0", "main", projectSetup))
+            .willReturn(CompletableFuture.completedFuture(null));
+        // Still syncing when the post-release tasks fail
+        given(mavenCentralSyncChecker.awaitInCentral("1.1.0", "main", projectSetup))
+            .willReturn(CompletableFuture.runAsync(() -> {
+            }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)));
+        willThrow(releaseFailure).given(postReleaseTaskScheduler).runPostReleaseTasks(anyMap(), any());
+        Map<String, CompletableFuture<Void>> inCentral = Map.of("1.0.0", new CompletableFuture<>(), "1.1.0",
+                new CompletableFuture<>());
+
+        thenThrownBy(() -> workflow.run(projectSetup, trainNotifications,
+                version -> CompletableFuture.completedFuture(null), inCentral))
+            .isSameAs(releaseFailure);
+
+        thenThrownBy(() -> inCentral.get("1.0.0").join()).hasRootCause(releaseFailure);
+        BDDAssertions.then(inCentral.get("1.1.0")).isCompleted();
+        then(mavenCentralSyncChecker).should(never()).awaitInCentral("1.0.0", "1.0.x", projectSetup);
     }
 
 }
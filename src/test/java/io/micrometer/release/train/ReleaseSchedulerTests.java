@@ -13,15 +13,20 @@
  */
 package io.micrometer.release.train;
 
+import io.micrometer.release.common.GithubReleasesClient;
 import io.micrometer.release.common.ProcessRunner;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
+import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.mockito.Mockito;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static org.mockito.BDDMockito.given;
@@ -37,41 +42,72 @@ class ReleaseSchedulerTests {
 
     DependencyVerifier dependencyVerifier = mock();
 
-    ReleaseScheduler releaseScheduler = new ReleaseScheduler(checker, processRunner, dependencyVerifier);
+    GithubReleasesClient githubReleasesClient = mock();
+
+    ReleaseScheduler releaseScheduler = new ReleaseScheduler(checker, processRunner, dependencyVerifier,
+            githubReleasesClient);
 
     @Test
     void should_schedule_releases() throws IOException, InterruptedException {
+        given(processRunner.getOrgRepo()).willReturn("micrometer-metrics/micrometer");
         given(checker.checkBuildStatus(BDDMockito.anyString())).willReturn(true);
 
-        releaseScheduler.runReleaseAndCheckCi(Map.of("1.0.0", "v1.0.0", "2.0.0", "v2.0.0"),
-                TestProjectSetup.forMicrometer("1.0.0", "2.0.0"));
+        ProjectSetup projectSetup = TestProjectSetup.forMicrometer("1.0.0", "2.0.0");
+
+        CompletableFuture
+            .allOf(releaseScheduler.releaseAndCheckCi("1.0.0", "v1.0.0", projectSetup),
+                    releaseScheduler.releaseAndCheckCi("2.0.0", "v2.0.0", projectSetup))
+            .join();
 
-        then(processRunner).should().run("gh", "release", "create", "v1.0.0", "--target", "v1.0.0", "-t", "1.0.0");
-        then(processRunner).should().run("gh", "release", "create", "v2.0.0", "--target", "v2.0.0", "-t", "2.0.0");
+        then(githubReleasesClient).should().createRelease("micrometer-metrics/micrometer", "v1.0.0", "v1.0.0", "1.0.0");
+        then(githubReleasesClient).should().createRelease("micrometer-metrics/micrometer", "v2.0.0", "v2.0.0", "2.0.0");
 
         then(checker).should().checkBuildStatus("1.0.0");
         then(checker).should().checkBuildStatus("2.0.0");
     }
 
+    @Test
+    void should_wait_for_ci_of_all_versions_at_the_same_time() throws IOException, InterruptedException {
+        given(processRunner.getOrgRepo()).willReturn("micrometer-metrics/micrometer");
+        // more versions than the common pool has threads
+        int versions = Runtime.getRuntime().availableProcessors() + 2;
+        CountDownLatch allWaiting = new CountDownLatch(versions);
+        given(checker.checkBuildStatus(BDDMockito.anyString())).willAnswer(invocation -> {
+            allWaiting.countDown();
+            return allWaiting.await(5, TimeUnit.SECONDS);
+        });
+        ProjectSetup projectSetup = TestProjectSetup.forMicrometer("1.0.0");
+
+        CompletableFuture
+            .allOf(IntStream.range(0, versions)
+                .mapToObj(i -> releaseScheduler.releaseAndCheckCi("1.0." + i, "main", projectSetup))
+                .toArray(CompletableFuture[]::new))
+            .join();
+
+        BDDAssertions.then(allWaiting.getCount()).isZero();
+    }
+
     @Test
     void should_not_make_a_release_when_dependency_check_fails() {
         ReleaseScheduler releaseScheduler = new ReleaseScheduler(checker, processRunner,
-                new DependencyVerifier(processRunner, ProjectTrainReleaseWorkflow.OBJECT_MAPPER) {
+                new DependencyVerifier(processRunner) {
                     @Override
                     void verifyDependencies(String branch, String orgRepository, ProjectSetup projectSetup) {
                         throw new IllegalStateException("BOOM!"); // mock doesn't work for
                         // some reason
                     }
-                });
+                }, githubReleasesClient);
 
-        thenThrownBy(() -> releaseScheduler.runReleaseAndCheckCi(Map.of("1.0.0", "v1.0.0"),
-                TestProjectSetup.forMicrometer("1.0.0")))
+        thenThrownBy(() -> releaseScheduler
+            .releaseAndCheckCi("1.0.0", "v1.0.0", TestProjectSetup.forMicrometer("1.0.0"))
+            .join())
             .isInstanceOf(CompletionException.class)
             .hasRootCauseInstanceOf(IllegalStateException.class)
             .hasRootCauseMessage("BOOM!");
 
         then(processRunner).should(never()).run((String[]) Mockito.any());
         then(processRunner).should(never()).run(Mockito.anyList());
+        then(githubReleasesClient).shouldHaveNoInteractions();
         then(checker).shouldHaveNoInteractions();
     }
 
@@ -79,8 +115,9 @@ class ReleaseSchedulerTests {
     void should_throw_exception_when_build_status_not_successful() throws IOException, InterruptedException {
         given(checker.checkBuildStatus(BDDMockito.anyString())).willReturn(false);
 
-        thenThrownBy(() -> releaseScheduler.runReleaseAndCheckCi(Map.of("1.0.0", "v1.0.0", "2.0.0", "v2.0.0"),
-                TestProjectSetup.forMicrometer("1.0.0", "2.0.0")))
+        thenThrownBy(() -> releaseScheduler
+            .releaseAndCheckCi("1.0.0", "v1.0.0", TestProjectSetup.forMicrometer("1.0.0", "2.0.0"))
+            .join())
             .hasRootCauseInstanceOf(IllegalStateException.class)
             .hasMessageContaining("Build failed for version:");
     }
@@ -16,6 +16,7 @@ package io.micrometer.release.train;
 import io.micrometer.release.train.TrainOptions.Project;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
 import io.micrometer.release.train.TrainOptions.ProjectWithDependencies;
+import io.micrometer.release.train.TrainOptions.Tracing;
 
 import java.util.Arrays;
 import java.util.List;
@@ -36,4 +37,9 @@ public class TestProjectSetup {
         return new ProjectSetup((List<ProjectWithDependencies>) list, "micrometer-metrics/tracing");
     }
 
+    public static ProjectSetup forTracingWithMicrometer(String projectVersion, String micrometerVersion) {
+        return new ProjectSetup(List.of(new Tracing(projectVersion, micrometerVersion, null)),
+                "micrometer-metrics/tracing");
+    }
+
 }
@@ -17,6 +17,7 @@ import io.micrometer.release.common.Dependency;
 import io.micrometer.release.train.TrainOptions.Project;
 import io.micrometer.release.train.TrainOptions.ProjectDefinition;
 import io.micrometer.release.train.TrainOptions.ProjectSetup;
+import io.micrometer.release.train.TrainOptions.ProjectVersion;
 import io.micrometer.release.train.TrainOptions.ProjectWithDependencies;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -59,6 +60,31 @@ class TrainOptionsTests {
         then(dependency.group()).isEqualTo("io.micrometer");
     }
 
+    @Test
+    void should_expect_tracing_and_docs_gen_dependencies_of_the_right_projects() {
+        List<ProjectSetup> projectSetups = trainOptions.parseForMetaTrain("1.1.0", "1.14.0", "1.4.0", "1.0.0");
+
+        then(projectSetups.get(2).expectedDependencies()).containsExactlyInAnyOrder(
+                new Dependency("io.micrometer", "micrometer-bom", "1.14.0", false),
+                new Dependency("io.micrometer", "context-propagation", "1.1.0", false));
+        then(projectSetups.get(3).expectedDependencies()).containsExactlyInAnyOrder(
+                new Dependency("io.micrometer", "micrometer-bom", "1.14.0", false),
+                new Dependency("io.micrometer", "micrometer-tracing-bom", "1.4.0", false));
+    }
+
+    @Test
+    void should_return_dependencies_of_a_version() {
+        List<ProjectSetup> projectSetups = trainOptions.parseForMetaTrain("1.1.0,1.2.0", "1.14.0,1.15.0",
+                "1.4.0,1.5.0", "1.0.0,1.1.0");
+
+        then(projectSetups.get(2).dependenciesOf("1.5.0")).containsExactlyInAnyOrder(
+                new ProjectVersion("micrometer-metrics/micrometer", "1.15.0"),
+                new ProjectVersion("micrometer-metrics/context-propagation", "1.2.0"));
+        then(projectSetups.get(3).dependenciesOf("1.0.0")).containsExactlyInAnyOrder(
+                new ProjectVersion("micrometer-metrics/micrometer", "1.14.0"),
+                new ProjectVersion("micrometer-metrics/tracing", "1.4.0"));
+    }
+
     @ParameterizedTest(name = "contextProp <{0}>, microm <{1}>, tracing <{2}>, docsGen <{3}>")
     @CsvSource(textBlock = """
             1;2,3;4,5,6;7,8,9,0
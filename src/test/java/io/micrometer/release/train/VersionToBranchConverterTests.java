@@ -13,6 +13,8 @@
  */
 package io.micrometer.release.train;
 
+import io.micrometer.release.common.GithubPaginator;
+import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -21,7 +23,9 @@ import java.net.http.HttpClient;
 import java.util.List;
 import java.util.Map;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.assertj.core.api.BDDAssertions.then;
 
 class VersionToBranchConverterTests {
@@ -31,12 +35,59 @@ class VersionToBranchConverterTests {
 
     @Test
     void should_convert_version_to_branch() {
-        VersionToBranchConverter converter = new VersionToBranchConverter("foo",
-                wm1.url("/repos/micrometer-metrics/micrometer/branches/"), HttpClient.newBuilder().build());
+        VersionToBranchConverter converter = new VersionToBranchConverter(paginator(),
+                "micrometer-metrics/micrometer");
 
         Map<String, String> versionToBranch = converter.convert(List.of("1.0.1", "1.1.2-M2"));
 
         then(versionToBranch).hasSize(2).containsAllEntriesOf(Map.of("1.0.1", "1.0.x", "1.1.2-M2", "main"));
     }
 
+    @Test
+    void should_list_all_branch_pages_once_per_converter() {
+        wm1.stubFor(get(urlEqualTo("/repos/micrometer-metrics/tracing/branches?per_page=100"))
+            .willReturn(okJson("[{\"name\":\"main\"},{\"name\":\"1.4.x\"}]").withHeader("Link",
+                    "<" + wm1.url("/repos/micrometer-metrics/tracing/branches?per_page=100&page=2")
+                            + ">; rel=\"next\", <"
+                            + wm1.url("/repos/micrometer-metrics/tracing/branches?per_page=100&page=2")
+                            + ">; rel=\"last\"")));
+        wm1.stubFor(get(urlEqualTo("/repos/micrometer-metrics/tracing/branches?per_page=100&page=2"))
+            .willReturn(okJson("[{\"name\":\"1.5.x\"}]")));
+        VersionToBranchConverter converter = new VersionToBranchConverter(paginator(), "micrometer-metrics/tracing");
+
+        Map<String, String> first = converter.convert(List.of("1.4.3", "1.5.1"));
+        Map<String, String> second = converter.convert(List.of("1.5.1", "1.6.0-M1"));
+
+        then(first).containsAllEntriesOf(Map.of("1.4.3", "1.4.x", "1.5.1", "1.5.x"));
+        then(second).containsAllEntriesOf(Map.of("1.5.1", "1.5.x", "1.6.0-M1", "main"));
+        wm1.verify(1, WireMock.getRequestedFor(urlEqualTo("/repos/micrometer-metrics/tracing/branches?per_page=100")));
+        wm1.verify(1, WireMock
+            .getRequestedFor(urlEqualTo("/repos/micrometer-metrics/tracing/branches?per_page=100&page=2")));
+    }
+
+    @Test
+    void should_see_branches_created_after_another_converter_listed_them() {
+        wm1.stubFor(get(urlEqualTo("/repos/micrometer-metrics/context-propagation/branches?per_page=100"))
+            .inScenario("branches")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(okJson("[{\"name\":\"main\"}]"))
+            .willSetStateTo("branched"));
+        wm1.stubFor(get(urlEqualTo("/repos/micrometer-metrics/context-propagation/branches?per_page=100"))
+            .inScenario("branches")
+            .whenScenarioStateIs("branched")
+            .willReturn(okJson("[{\"name\":\"main\"},{\"name\":\"1.1.x\"}]")));
+
+        Map<String, String> before = new VersionToBranchConverter(paginator(), "micrometer-metrics/context-propagation")
+            .convert(List.of("1.1.5"));
+        Map<String, String> after = new VersionToBranchConverter(paginator(), "micrometer-metrics/context-propagation")
+            .convert(List.of("1.1.5"));
+
+        then(before).containsEntry("1.1.5", "main");
+        then(after).containsEntry("1.1.5", "1.1.x");
+    }
+
+    private static GithubPaginator paginator() {
+        return new GithubPaginator(HttpClient.newHttpClient(), wm1.baseUrl(), "foo", 1);
+    }
+
 }